@@ -0,0 +1,103 @@
+// k6 load test: read-heavy traffic against the public recipe endpoints.
+//
+// Run the same script against the platform-thread and virtual-thread configurations
+// (see "Virtual Threads" in the README) and compare latency percentiles and error rates:
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e RATE=400 loadtest/read-mix.js
+//
+// RATE is requests per second, held constant whatever the response times, so a saturated
+// server shows up as growing latency and dropped iterations instead of a lower request rate.
+//
+// Start the backend with its response caches off, otherwise most requests never reach
+// MongoDB and both thread modes look the same:
+//
+//   --recipes.detail-cache.enabled=false --recipes.page-cache.enabled=false --trending.cache.enabled=false
+//
+// Requests are also spread over every public page, every seeded recipe, their categories and
+// words from their titles, so no small set of hot keys dominates.
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const RATE = parseInt(__ENV.RATE || '200', 10);
+const DURATION = __ENV.DURATION || '2m';
+const PAGE_SIZE = 12;
+const SEED_PAGES = parseInt(__ENV.SEED_PAGES || '40', 10);
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'constant-arrival-rate',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: Math.max(50, RATE),
+            maxVUs: RATE * 10,
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        'http_req_duration{endpoint:public}': ['p(99)<1000'],
+        'http_req_duration{endpoint:detail}': ['p(99)<1000'],
+    },
+};
+
+export function setup() {
+    const ids = [];
+    const categories = new Set();
+    const terms = new Set();
+    let total = 0;
+    for (let page = 0; page < SEED_PAGES; page++) {
+        const res = http.get(`${BASE_URL}/api/recipes/public?page=${page}&size=50`);
+        check(res, { 'seed page loaded': (r) => r.status === 200 });
+        if (res.status !== 200) {
+            break;
+        }
+        total = res.json('totalElements');
+        const content = res.json('content');
+        for (const recipe of content) {
+            ids.push(recipe.id);
+            (recipe.categories || []).forEach((category) => categories.add(category));
+            (recipe.title || '').split(/\W+/)
+                .filter((word) => word.length > 3)
+                .forEach((word) => terms.add(word.toLowerCase()));
+        }
+        if (res.json('last')) {
+            break;
+        }
+    }
+    if (ids.length === 0) {
+        throw new Error('No public recipes to read; seed the database first');
+    }
+    return {
+        ids,
+        pages: Math.max(1, Math.ceil(total / PAGE_SIZE)),
+        categories: [...categories],
+        terms: terms.size > 0 ? [...terms] : ['chicken'],
+    };
+}
+
+function pick(values) {
+    return values[Math.floor(Math.random() * values.length)];
+}
+
+export default function (data) {
+    const roll = Math.random();
+    let res;
+    if (roll < 0.4) {
+        let url = `${BASE_URL}/api/recipes/public?page=${Math.floor(Math.random() * data.pages)}&size=${PAGE_SIZE}`;
+        if (data.categories.length > 0 && Math.random() < 0.5) {
+            url = `${BASE_URL}/api/recipes/public?category=${encodeURIComponent(pick(data.categories))}&page=0&size=${PAGE_SIZE}`;
+        }
+        res = http.get(url, { tags: { endpoint: 'public' } });
+    } else if (roll < 0.8) {
+        res = http.get(`${BASE_URL}/api/recipes/${pick(data.ids)}`, { tags: { endpoint: 'detail' } });
+    } else if (roll < 0.9) {
+        res = http.get(`${BASE_URL}/api/recipes/public/trending`, { tags: { endpoint: 'trending' } });
+    } else {
+        const q = encodeURIComponent(pick(data.terms));
+        res = http.get(`${BASE_URL}/api/recipes/search?q=${q}&page=0&size=${PAGE_SIZE}`, { tags: { endpoint: 'search' } });
+    }
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}
@@ -1,14 +1,50 @@
 package com.project.dishly.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * MongoDB configuration.
- * Enables auditing for @CreatedDate and @LastModifiedDate annotations.
+ * Enables auditing for @CreatedDate and @LastModifiedDate annotations and sizes the driver's
+ * connection pool.
+ *
+ * With platform threads, Tomcat's worker pool caps how many requests wait on MongoDB at once.
+ * With virtual threads there is no such cap, so the connection pool becomes the limit: requests
+ * beyond max-size queue for a connection for at most max-wait-ms and then fail with 503,
+ * instead of piling up behind a slow database.
  */
 @Configuration
 @EnableMongoAuditing
 public class MongoConfig {
-    // MongoDB auditing is enabled automatically with @EnableMongoAuditing
+    
+    @Value("${mongo.pool.max-size:100}")
+    private int maxSize;
+    
+    @Value("${mongo.pool.min-size:10}")
+    private int minSize;
+    
+    @Value("${mongo.pool.max-wait-ms:2000}")
+    private long maxWaitMs;
+    
+    @Value("${mongo.pool.max-connecting:4}")
+    private int maxConnecting;
+    
+    /**
+     * Apply the connection pool settings on top of the connection string.
+     *
+     * @return the client settings customizer
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer() {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxSize)
+                .minSize(minSize)
+                .maxWaitTime(maxWaitMs, TimeUnit.MILLISECONDS)
+                .maxConnecting(maxConnecting));
+    }
 }
@@ -0,0 +1,249 @@
+package com.project.dishly.config;
+
+import com.mongodb.client.FindIterable;
+import com.project.dishly.model.Like;
+import com.project.dishly.model.Rating;
+import com.project.dishly.model.Recipe;
+import com.project.dishly.model.RecipeCollection;
+import com.project.dishly.model.ShoppingList;
+import com.project.dishly.model.User;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Startup check that every repository query is served by an index.
+ *
+ * The index plan itself is declared on the entities (@Indexed / @CompoundIndex) and built by
+ * spring.data.mongodb.auto-index-creation. Once the application is ready, this runs explain()
+ * on each repository query with representative parameters and reports any query whose winning
+ * plan contains a COLLSCAN, or a blocking in-memory SORT for queries with a sort order. Mode
+ * "warn" logs the offenders, "fail" stops startup, "off" skips the check.
+ *
+ * The query list mirrors the repository methods; add an entry when adding a query method
+ * (QueryPlanVerifierTest fails for a method without one).
+ */
+@Component
+public class QueryPlanVerifier {
+    
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanVerifier.class);
+    
+    private static final String SAMPLE_USER = "plan-check@example.com";
+    
+    private static final ObjectId SAMPLE_ID = new ObjectId();
+    
+    private static final Pattern SAMPLE_PATTERN = Pattern.compile("pasta", Pattern.CASE_INSENSITIVE);
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Value("${mongo.query-plan-check:warn}")
+    private String mode;
+    
+    /**
+     * Verify query plans once indexes have been created.
+     *
+     * @throws IllegalStateException in fail mode, if any query needs a collection scan or a
+     *         blocking sort
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+        
+        List<String> unsupported;
+        try {
+            unsupported = verify();
+        } catch (Exception ex) {
+            log.warn("Could not verify query plans", ex);
+            return;
+        }
+        
+        if (unsupported.isEmpty()) {
+            return;
+        }
+        String message = "Queries without a supporting index: " + String.join(", ", unsupported);
+        if ("fail".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+    
+    /**
+     * Explain every planned query.
+     *
+     * @return names of the queries whose winning plan scans a whole collection or sorts in
+     *         memory, each followed by the offending stage
+     */
+    public List<String> verify() {
+        List<String> unsupported = new ArrayList<>();
+        List<PlannedQuery> queries = plannedQueries();
+        for (PlannedQuery query : queries) {
+            FindIterable<Document> find = mongoTemplate.getCollection(mongoTemplate.getCollectionName(query.entity()))
+                    .find(query.filter());
+            if (query.sort() != null) {
+                find = find.sort(query.sort());
+            }
+            Document plan = find.explain().get("queryPlanner", Document.class);
+            if (plan == null || containsStage(plan.get("winningPlan"), "COLLSCAN")) {
+                unsupported.add(query.name() + " (COLLSCAN)");
+            } else if (query.sort() != null && containsStage(plan.get("winningPlan"), "SORT")) {
+                // The index filters but does not provide the order, so results are sorted in memory
+                unsupported.add(query.name() + " (SORT)");
+            }
+        }
+        log.info("Verified query plans for {} repository queries, {} without index support",
+                queries.size(), unsupported.size());
+        return unsupported;
+    }
+    
+    /**
+     * Representative filters and sorts for every repository query method.
+     */
+    static List<PlannedQuery> plannedQueries() {
+        List<PlannedQuery> queries = new ArrayList<>();
+        
+        // RecipeRepository
+        Document isPublic = new Document("isPublic", true);
+        Document byUser = new Document("userId", SAMPLE_USER);
+        Document newestFirst = new Document("_id", -1);
+        Document byId = new Document("_id", SAMPLE_ID);
+        Document ownedById = new Document(byId).append("userId", SAMPLE_USER);
+        queries.add(new PlannedQuery("RecipeRepository.findByUserId", Recipe.class, byUser, null));
+        queries.add(new PlannedQuery("RecipeRepository.findByUserIdAndTitleContainingIgnoreCase", Recipe.class,
+                new Document(byUser).append("title", SAMPLE_PATTERN), null));
+        queries.add(new PlannedQuery("RecipeRepository.findByIsPublicTrue", Recipe.class, isPublic, null));
+        queries.add(new PlannedQuery("RecipeRepository.findByIsPublicTrueAndTitleContainingIgnoreCase", Recipe.class,
+                new Document(isPublic).append("title", SAMPLE_PATTERN), null));
+        queries.add(new PlannedQuery("RecipeRepository.findByIsPublicTrueAndCategoriesContaining", Recipe.class,
+                new Document(isPublic).append("categories", "Dinner"), null));
+        queries.add(new PlannedQuery("RecipeRepository.findByIsPublicTrueAndCategoriesContainingIgnoreCase", Recipe.class,
+                new Document(isPublic).append("categories", SAMPLE_PATTERN), null));
+        queries.add(new PlannedQuery("RecipeRepository.findByIsPublicTrueAndTitleContainingIgnoreCaseAndCategoriesContainingIgnoreCase",
+                Recipe.class, new Document(isPublic).append("title", SAMPLE_PATTERN).append("categories", SAMPLE_PATTERN), null));
+        queries.add(new PlannedQuery("RecipeRepository.findByUserIdAndCategoriesContaining", Recipe.class,
+                new Document(byUser).append("categories", "Dinner"), null));
+        queries.add(new PlannedQuery("RecipeRepository.findByUserIdAndTagsContaining", Recipe.class,
+                new Document(byUser).append("tags", "quick"), null));
+        queries.add(new PlannedQuery("RecipeRepository.findByUserIdAndIngredientName", Recipe.class,
+                new Document(byUser).append("ingredients.name", SAMPLE_PATTERN), null));
+        queries.add(new PlannedQuery("RecipeRepository.findByIdIn", Recipe.class,
+                new Document("_id", new Document("$in", List.of(SAMPLE_ID))), null));
+        queries.add(new PlannedQuery("RecipeRepository.findShoppingFieldsByIdIn", Recipe.class,
+                new Document("_id", new Document("$in", List.of(SAMPLE_ID))), null));
+        queries.add(new PlannedQuery("RecipeRepository.searchPublicRecipes", Recipe.class,
+                new Document(isPublic).append("$text", new Document("$search", "pasta")), null));
+        queries.add(new PlannedQuery("RecipeRepository.findByIsPublicTrueAndUsernameContainingIgnoreCase", Recipe.class,
+                new Document(isPublic).append("username", SAMPLE_PATTERN), null));
+        queries.add(new PlannedQuery("RecipeRepository.findByIsPublicTrueAndDescriptionContainingIgnoreCase", Recipe.class,
+                new Document(isPublic).append("description", SAMPLE_PATTERN), null));
+        queries.add(new PlannedQuery("RecipeRepository.findPublicLikeCounts", Recipe.class,
+                isPublic, new Document("likeCount", -1)));
+        queries.add(new PlannedQuery("RecipeRepository.streamPublicSearchFields", Recipe.class, isPublic, null));
+        queries.add(new PlannedQuery("RecipeRepository.findPublicSlice", Recipe.class,
+                new Document(isPublic).append("_id", new Document("$lt", SAMPLE_ID)), newestFirst));
+        queries.add(new PlannedQuery("RecipeRepository.findPublicSlice(category)", Recipe.class,
+                new Document(isPublic).append("categories", "Dinner").append("_id", new Document("$lt", SAMPLE_ID)), newestFirst));
+        queries.add(new PlannedQuery("RecipeRepository.findUserSlice", Recipe.class,
+                new Document(byUser).append("_id", new Document("$lt", SAMPLE_ID)), newestFirst));
+        queries.add(new PlannedQuery("RecipeRepository.findUserSlice(category)", Recipe.class,
+                new Document(byUser).append("categories", "Dinner"), newestFirst));
+        queries.add(new PlannedQuery("RecipeRepository.findUserSlice(tag)", Recipe.class,
+                new Document(byUser).append("tags", "quick"), newestFirst));
+        queries.add(new PlannedQuery("RecipeRepository.applyRatingDelta", Recipe.class, byId, null));
+        queries.add(new PlannedQuery("RecipeRepository.incrementLikeCount", Recipe.class,
+                new Document(byId).append("likeCount", new Document("$gte", 1)), null));
+        queries.add(new PlannedQuery("RecipeRepository.applyCounterDeltas", Recipe.class, byId, null));
+        queries.add(new PlannedQuery("RecipeRepository.updateOwnedRecipe", Recipe.class, ownedById, null));
+        queries.add(new PlannedQuery("RecipeRepository.toggleVisibility", Recipe.class, ownedById, null));
+        
+        // LikeRepository
+        Document likeKey = new Document("recipeId", SAMPLE_ID.toHexString()).append("userId", SAMPLE_USER);
+        queries.add(new PlannedQuery("LikeRepository.findByRecipeIdAndUserId", Like.class, likeKey, null));
+        queries.add(new PlannedQuery("LikeRepository.findByUserIdAndRecipeIdIn", Like.class,
+                new Document("userId", SAMPLE_USER).append("recipeId", new Document("$in", List.of(SAMPLE_ID.toHexString()))), null));
+        queries.add(new PlannedQuery("LikeRepository.countByRecipeId", Like.class,
+                new Document("recipeId", SAMPLE_ID.toHexString()), null));
+        queries.add(new PlannedQuery("LikeRepository.existsByRecipeIdAndUserId", Like.class, likeKey, null));
+        queries.add(new PlannedQuery("LikeRepository.deleteByRecipeIdAndUserId", Like.class, likeKey, null));
+        queries.add(new PlannedQuery("LikeRepository.insertIfAbsent", Like.class, likeKey, null));
+        
+        // RatingRepository
+        queries.add(new PlannedQuery("RatingRepository.findByRecipeId", Rating.class,
+                new Document("recipeId", SAMPLE_ID.toHexString()), null));
+        queries.add(new PlannedQuery("RatingRepository.findByRecipeIdAndUserId", Rating.class, likeKey, null));
+        queries.add(new PlannedQuery("RatingRepository.findByUserId", Rating.class, byUser, null));
+        queries.add(new PlannedQuery("RatingRepository.existsByRecipeIdAndUserId", Rating.class, likeKey, null));
+        queries.add(new PlannedQuery("RatingRepository.deleteByRecipeId", Rating.class,
+                new Document("recipeId", SAMPLE_ID.toHexString()), null));
+        queries.add(new PlannedQuery("RatingRepository.upsertRating", Rating.class, likeKey, null));
+        
+        // UserRepository
+        queries.add(new PlannedQuery("UserRepository.findByEmail", User.class, new Document("email", SAMPLE_USER), null));
+        queries.add(new PlannedQuery("UserRepository.findByUsername", User.class, new Document("username", "plan-check"), null));
+        queries.add(new PlannedQuery("UserRepository.existsByEmail", User.class, new Document("email", SAMPLE_USER), null));
+        queries.add(new PlannedQuery("UserRepository.existsByUsername", User.class, new Document("username", "plan-check"), null));
+        
+        // RecipeCollectionRepository
+        queries.add(new PlannedQuery("RecipeCollectionRepository.findByUserId", RecipeCollection.class, byUser, null));
+        queries.add(new PlannedQuery("RecipeCollectionRepository.findSummariesByUserId", RecipeCollection.class, byUser, null));
+        queries.add(new PlannedQuery("RecipeCollectionRepository.findIdsByUserIdContainingRecipe", RecipeCollection.class,
+                new Document(byUser).append("recipeIds", SAMPLE_ID.toHexString()), null));
+        queries.add(new PlannedQuery("RecipeCollectionRepository.addRecipe", RecipeCollection.class, ownedById, null));
+        queries.add(new PlannedQuery("RecipeCollectionRepository.removeRecipe", RecipeCollection.class, ownedById, null));
+        queries.add(new PlannedQuery("RecipeCollectionRepository.findRecipeIdSlice", RecipeCollection.class, byId, null));
+        
+        // ShoppingListRepository
+        queries.add(new PlannedQuery("ShoppingListRepository.findByUserId", ShoppingList.class, byUser, null));
+        queries.add(new PlannedQuery("ShoppingListRepository.updateOwnedList", ShoppingList.class, ownedById, null));
+        
+        return queries;
+    }
+    
+    /**
+     * Search an explain plan tree for a stage, whatever the server version's plan layout.
+     */
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Map<?, ?> map) {
+            if (stage.equals(map.get("stage"))) {
+                return true;
+            }
+            for (Object child : map.values()) {
+                if (containsStage(child, stage)) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object child : list) {
+                if (containsStage(child, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * A repository query with representative parameters.
+     *
+     * @param name repository method the query stands for
+     * @param entity entity whose collection is queried
+     * @param filter query filter
+     * @param sort sort order, or null for none
+     */
+    record PlannedQuery(String name, Class<?> entity, Document filter, Document sort) {
+    }
+}
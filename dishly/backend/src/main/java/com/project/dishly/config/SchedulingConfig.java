@@ -0,0 +1,14 @@
+package com.project.dishly.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling configuration.
+ * Enables @Scheduled background jobs such as rating reconciliation.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Scheduled jobs are discovered automatically with @EnableScheduling
+}
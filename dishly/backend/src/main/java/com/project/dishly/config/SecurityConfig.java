@@ -63,6 +63,7 @@ public class SecurityConfig {
      * Configure HTTP security.
      * - Permit public endpoints: /api/auth/**, /api/recipes/public
      * - Require authentication for all other /api/** endpoints
+     * - Permit /actuator/health and /actuator/info; require ROLE_ADMIN for other actuator endpoints
      * - Disable CSRF (REST API)
      * - Enable stateless session management
      * - Add JWT filter
@@ -85,6 +86,10 @@ public class SecurityConfig {
                         // All other API endpoints require authentication
                         .requestMatchers("/api/**").authenticated()
                         
+                        // Health checks stay public; metrics and other actuator endpoints are for admins
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        
                         // Allow all other requests
                         .anyRequest().permitAll()
                 )
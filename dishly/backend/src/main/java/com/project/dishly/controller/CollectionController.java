@@ -12,6 +12,8 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -118,17 +120,44 @@ public class CollectionController {
     }
     
     /**
-     * Get all recipes in a collection.
-     * GET /api/collections/{id}/recipes
+     * Get the IDs of the user's collections that contain a recipe.
+     * GET /api/collections/containing/{recipeId}
+     *
+     * @param recipeId the recipe ID
+     * @param authentication Spring Security authentication object
+     * @return list of collection IDs
+     */
+    @GetMapping("/containing/{recipeId}")
+    @Operation(
+            summary = "Get collections containing a recipe",
+            description = "Retrieve the IDs of the authenticated user's collections that contain a recipe",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Collection IDs retrieved successfully"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized")
+            }
+    )
+    public ResponseEntity<List<String>> getCollectionsContainingRecipe(
+            @PathVariable String recipeId,
+            Authentication authentication) {
+        
+        String userEmail = extractEmailFromAuth(authentication);
+        return ResponseEntity.ok(collectionService.getCollectionIdsContainingRecipe(recipeId, userEmail));
+    }
+    
+    /**
+     * Get a page of the recipes in a collection.
+     * GET /api/collections/{id}/recipes?page=0&size=20
      *
      * @param id the collection ID
+     * @param page page number (0-indexed)
+     * @param size page size
      * @param authentication Spring Security authentication object
-     * @return list of RecipeListResponse
+     * @return page of RecipeListResponse
      */
     @GetMapping("/{id}/recipes")
     @Operation(
             summary = "Get collection recipes",
-            description = "Retrieve all recipes in a collection",
+            description = "Retrieve a page of the recipes in a collection, in the order they were added",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Recipes retrieved successfully"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized"),
@@ -137,11 +166,13 @@ public class CollectionController {
     )
     public ResponseEntity<?> getCollectionRecipes(
             @PathVariable String id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
             Authentication authentication) {
         
         String userEmail = extractEmailFromAuth(authentication);
         try {
-            List<RecipeListResponse> recipes = collectionService.getCollectionRecipes(id, userEmail);
+            Page<RecipeListResponse> recipes = collectionService.getCollectionRecipes(id, PageRequest.of(page, size), userEmail);
             return ResponseEntity.ok(recipes);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
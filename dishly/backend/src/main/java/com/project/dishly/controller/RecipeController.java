@@ -6,6 +6,8 @@ import com.project.dishly.dto.request.RatingRequest;
 import com.project.dishly.dto.response.RecipeResponse;
 import com.project.dishly.dto.response.RecipeListResponse;
 import com.project.dishly.dto.response.MessageResponse;
+import com.project.dishly.dto.response.PantryMatchResponse;
+import com.project.dishly.dto.response.SuggestionResponse;
 import com.project.dishly.service.RecipeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,11 +20,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -68,33 +72,43 @@ public class RecipeController {
     
     /**
      * Get user's recipes with optional filtering.
-     * GET /api/recipes?search=&category=&tag=&sort=
+     * GET /api/recipes?search=&category=&tag=&sort=&cursor=&size=20
+     * Passing a cursor (empty for the first slice) switches to keyset pagination, newest first.
      *
      * @param authentication Spring Security authentication object
      * @param search optional search term for title
      * @param category optional category filter
      * @param tag optional tag filter
      * @param sort optional sort parameter
-     * @return list of RecipeListResponse
+     * @param cursor optional continuation token from the previous slice
+     * @param size slice size when paginating by cursor (default 20)
+     * @return list of RecipeListResponse, or CursorPageResponse when a cursor is given
      */
     @GetMapping
     @Operation(
             summary = "Get user recipes",
-            description = "Retrieve all recipes created by the authenticated user with optional search and filtering",
+            description = "Retrieve all recipes created by the authenticated user with optional search and filtering. "
+                    + "Pass a cursor (empty for the first slice) to page through them with keyset pagination",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Recipes retrieved successfully",
                             content = @Content(schema = @Schema(implementation = RecipeListResponse.class))),
                     @ApiResponse(responseCode = "401", description = "Unauthorized")
             }
     )
-    public ResponseEntity<List<RecipeListResponse>> getUserRecipes(
+    public ResponseEntity<?> getUserRecipes(
             Authentication authentication,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String tag,
-            @RequestParam(required = false) String sort) {
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
         
         String userEmail = extractEmailFromAuth(authentication);
+        if (cursor != null) {
+            return ResponseEntity.ok(recipeService.getUserRecipesSlice(userEmail, search, category, tag, cursor, size));
+        }
+        
         List<RecipeListResponse> recipes = recipeService.getUserRecipes(userEmail, search, category, tag, sort);
         
         return ResponseEntity.ok(recipes);
@@ -102,92 +116,195 @@ public class RecipeController {
     
     /**
      * Get public recipes with optional filtering and pagination.
-     * GET /api/recipes/public?search=&category=&page=0&size=20
+     * GET /api/recipes/public?search=&category=&page=0&size=20&cursor=
+     * Passing a cursor (empty for the first slice) switches to keyset pagination, newest first.
      *
      * @param search optional search term for title
      * @param category optional category filter
      * @param page page number (default 0)
      * @param size page size (default 20)
-     * @return Page of RecipeListResponse
+     * @param cursor optional continuation token from the previous slice
+     * @param authentication Spring Security authentication object (null for anonymous viewers)
+     * @return Page of RecipeListResponse, or CursorPageResponse when a cursor is given
      */
     @GetMapping("/public")
     @Operation(
             summary = "Get public recipes",
-            description = "Retrieve all public recipes with optional search, filtering, and pagination",
+            description = "Retrieve all public recipes with optional search, filtering, and pagination. "
+                    + "Pass a cursor (empty for the first slice) to use keyset pagination instead of page numbers",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Public recipes retrieved successfully",
                             content = @Content(schema = @Schema(implementation = RecipeListResponse.class))),
             }
     )
-    public ResponseEntity<Page<RecipeListResponse>> getPublicRecipes(
+    public ResponseEntity<?> getPublicRecipes(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String category,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            Authentication authentication) {
+        
+        String userEmail = authentication != null ? extractEmailFromAuth(authentication) : null;
+        if (cursor != null) {
+            return ResponseEntity.ok(recipeService.getPublicRecipesSlice(search, category, cursor, size, userEmail));
+        }
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<RecipeListResponse> recipes = recipeService.getPublicRecipes(search, category, pageable);
+        Page<RecipeListResponse> recipes = recipeService.getPublicRecipes(search, category, pageable, userEmail);
         
         return ResponseEntity.ok(recipes);
     }
     
     /**
      * Search public recipes by multiple fields (title, description, tags, username).
-     * GET /api/recipes/search?q=&category=&page=0&size=20
+     * GET /api/recipes/search?q=&category=&engine=&page=0&size=20&cursor=
+     * Passing a cursor (empty for the first slice) switches to keyset pagination, newest first.
+     * engine=index ranks results by relevance with the in-process index, engine=fuzzy tolerates
+     * typos in the search term (both page-based only).
      *
      * @param q search term (searches title, description, tags, username)
      * @param category optional category filter
+     * @param engine optional search engine: mongo, index or fuzzy (defaults to configuration)
      * @param page page number (default 0)
      * @param size page size (default 20)
-     * @return Page of RecipeListResponse
+     * @param cursor optional continuation token from the previous slice (mongo engine only)
+     * @param authentication Spring Security authentication object (null for anonymous viewers)
+     * @return Page of RecipeListResponse, or CursorPageResponse when a cursor is given
      */
     @GetMapping("/search")
     @Operation(
             summary = "Search public recipes",
-            description = "Search public recipes across multiple fields (title, description, tags, username)",
+            description = "Search public recipes across multiple fields (title, description, tags, username). "
+                    + "Use engine=index for relevance-ranked results from the in-process search index, "
+                    + "or engine=fuzzy for typo-tolerant matching on titles and ingredients",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Recipes retrieved successfully",
                             content = @Content(schema = @Schema(implementation = RecipeListResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Unknown or disabled engine, or invalid cursor")
             }
     )
-    public ResponseEntity<Page<RecipeListResponse>> searchPublicRecipes(
+    public ResponseEntity<?> searchPublicRecipes(
             @RequestParam(name = "q", required = false) String q,
             @RequestParam(required = false) String category,
+            @RequestParam(required = false) String engine,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            Authentication authentication) {
+        
+        String userEmail = authentication != null ? extractEmailFromAuth(authentication) : null;
+        if (cursor != null) {
+            return ResponseEntity.ok(recipeService.searchPublicRecipesSlice(q, category, engine, cursor, size, userEmail));
+        }
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<RecipeListResponse> recipes = recipeService.searchPublicRecipes(q, category, pageable);
+        Page<RecipeListResponse> recipes = recipeService.searchPublicRecipes(q, category, engine, pageable, userEmail);
         
         return ResponseEntity.ok(recipes);
     }
     
+    /**
+     * Find public recipes that can be cooked from the given ingredients.
+     * GET /api/recipes/pantry?ingredients=egg,flour,milk&maxMissing=0&page=0&size=20
+     *
+     * @param ingredients ingredient names on hand
+     * @param maxMissing maximum number of recipe ingredients allowed to be missing (default 0)
+     * @param page page number (default 0)
+     * @param size page size (default 20)
+     * @param authentication Spring Security authentication object (null for anonymous viewers)
+     * @return Page of PantryMatchResponse
+     */
+    @GetMapping("/pantry")
+    @Operation(
+            summary = "What can I cook",
+            description = "Rank public recipes by how much of their ingredient list the given pantry covers",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Matching recipes retrieved successfully",
+                            content = @Content(schema = @Schema(implementation = PantryMatchResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "No ingredients given or negative maxMissing")
+            }
+    )
+    public ResponseEntity<Page<PantryMatchResponse>> findRecipesByPantry(
+            @RequestParam List<String> ingredients,
+            @RequestParam(defaultValue = "0") int maxMissing,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        
+        String userEmail = authentication != null ? extractEmailFromAuth(authentication) : null;
+        Pageable pageable = PageRequest.of(page, size);
+        
+        return ResponseEntity.ok(recipeService.findRecipesByPantry(ingredients, maxMissing, pageable, userEmail));
+    }
+    
+    /**
+     * Suggest search completions for a prefix.
+     * GET /api/recipes/suggest?prefix=&limit=10
+     *
+     * @param prefix the typed prefix
+     * @param limit maximum number of suggestions (default 10, at most 25)
+     * @return list of SuggestionResponse
+     */
+    @GetMapping("/suggest")
+    @Operation(
+            summary = "Suggest search completions",
+            description = "Complete a prefix to popular public recipe titles, tags, categories and ingredient names",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully",
+                            content = @Content(schema = @Schema(implementation = SuggestionResponse.class)))
+            }
+    )
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        return ResponseEntity.ok(recipeService.suggest(prefix, limit));
+    }
+    
     /**
      * Get a specific recipe by ID.
      * GET /api/recipes/{id}
      *
      * @param id the recipe ID
+     * @param servings optional servings to scale ingredient quantities to
+     * @param webRequest the request, for If-None-Match handling
      * @param authentication Spring Security authentication object (may be null for public recipes)
      * @return RecipeResponse with recipe details
      */
     @GetMapping("/{id}")
     @Operation(
             summary = "Get recipe details",
-            description = "Retrieve detailed information about a specific recipe by ID",
+            description = "Retrieve detailed information about a specific recipe by ID, optionally scaled to a number of servings",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Recipe retrieved successfully",
                             content = @Content(schema = @Schema(implementation = RecipeResponse.class))),
+                    @ApiResponse(responseCode = "304", description = "Recipe not modified since the given ETag"),
                     @ApiResponse(responseCode = "404", description = "Recipe not found")
             }
     )
     public ResponseEntity<RecipeResponse> getRecipe(
             @PathVariable String id,
+            @RequestParam(required = false) Integer servings,
+            WebRequest webRequest,
             Authentication authentication) {
         
         String userEmail = authentication != null ? extractEmailFromAuth(authentication) : null;
-        RecipeResponse recipeResponse = recipeService.getRecipeById(id, userEmail);
+        RecipeService.RecipeDetail detail = recipeService.getRecipeDetail(id, userEmail, servings);
         
-        return ResponseEntity.ok(recipeResponse);
+        // Revalidate on every use: overrides the no-store that Spring Security adds by default,
+        // which would keep clients from ever sending If-None-Match
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (webRequest.checkNotModified(detail.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(detail.eTag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(detail.eTag())
+                .cacheControl(cacheControl)
+                .body(detail.response().get());
     }
     
     /**
@@ -1,5 +1,7 @@
 package com.project.dishly.controller;
 
+import com.project.dishly.dto.request.CheckItemsRequest;
+import com.project.dishly.dto.request.ShoppingItemUpdateRequest;
 import com.project.dishly.dto.request.ShoppingListRequest;
 import com.project.dishly.dto.response.ShoppingListResponse;
 import com.project.dishly.dto.response.MessageResponse;
@@ -116,6 +118,72 @@ public class ShoppingListController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Update a shopping list item's checked status and/or quantity.
+     * PATCH /api/shopping-lists/{id}/items/{itemIndex}
+     *
+     * @param id the shopping list ID
+     * @param itemIndex the index of the item to update
+     * @param updateRequest the fields to change
+     * @param authentication Spring Security authentication object
+     * @return ShoppingListResponse with updated list
+     */
+    @PatchMapping("/{id}/items/{itemIndex}")
+    @Operation(
+            summary = "Update shopping list item",
+            description = "Set the checked status and/or quantity of an item in the shopping list",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Item updated successfully",
+                            content = @Content(schema = @Schema(implementation = ShoppingListResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid item index or update data"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "404", description = "Shopping list not found")
+            }
+    )
+    public ResponseEntity<ShoppingListResponse> updateItem(
+            @PathVariable String id,
+            @PathVariable int itemIndex,
+            @Valid @RequestBody ShoppingItemUpdateRequest updateRequest,
+            Authentication authentication) {
+        
+        String userEmail = extractEmailFromAuth(authentication);
+        ShoppingListResponse response = shoppingListService.updateItem(id, itemIndex, updateRequest, userEmail);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Check or uncheck several shopping list items at once.
+     * PATCH /api/shopping-lists/{id}/items/check
+     *
+     * @param id the shopping list ID
+     * @param checkItemsRequest item indexes and the checked status to set
+     * @param authentication Spring Security authentication object
+     * @return ShoppingListResponse with updated list
+     */
+    @PatchMapping("/{id}/items/check")
+    @Operation(
+            summary = "Check shopping list items",
+            description = "Set the checked status of several items in the shopping list in one request",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Items updated successfully",
+                            content = @Content(schema = @Schema(implementation = ShoppingListResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid item index"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "404", description = "Shopping list not found")
+            }
+    )
+    public ResponseEntity<ShoppingListResponse> checkItems(
+            @PathVariable String id,
+            @Valid @RequestBody CheckItemsRequest checkItemsRequest,
+            Authentication authentication) {
+        
+        String userEmail = extractEmailFromAuth(authentication);
+        ShoppingListResponse response = shoppingListService.checkItems(id, checkItemsRequest, userEmail);
+        
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Delete a shopping list.
      * DELETE /api/shopping-lists/{id}
@@ -0,0 +1,24 @@
+package com.project.dishly.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for checking or unchecking several shopping list items at once.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckItemsRequest {
+    
+    @NotEmpty(message = "At least one item index is required")
+    private List<Integer> itemIndexes;
+    
+    @NotNull(message = "Checked status is required")
+    private Boolean isChecked;
+}
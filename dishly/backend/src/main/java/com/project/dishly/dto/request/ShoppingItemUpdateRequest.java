@@ -0,0 +1,21 @@
+package com.project.dishly.dto.request;
+
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a partial shopping list item update.
+ * Only the provided fields are changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShoppingItemUpdateRequest {
+    
+    private Boolean isChecked;
+    
+    @Min(value = 0, message = "Quantity cannot be negative")
+    private Double quantity;
+}
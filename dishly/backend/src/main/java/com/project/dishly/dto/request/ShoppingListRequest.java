@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO for shopping list generation request.
@@ -22,4 +23,10 @@ public class ShoppingListRequest {
     
     @NotNull(message = "Recipe IDs are required")
     private List<String> recipeIds;
+    
+    /**
+     * Optional servings multiplier per recipe ID (e.g. 2.0 to double a recipe); recipes not
+     * listed use 1.0.
+     */
+    private Map<String, Double> multipliers;
 }
@@ -5,7 +5,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * DTO for recipe collection response.
@@ -22,7 +21,5 @@ public class CollectionResponse {
     
     private Integer recipeCount;
     
-    private List<String> recipeIds;
-    
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,28 @@
+package com.project.dishly.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a cursor-paginated slice of results.
+ * Carries an opaque continuation token instead of page numbers and total counts.
+ *
+ * @param <T> the item type
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    
+    private List<T> content;
+    
+    private int size;
+    
+    private boolean hasNext;
+    
+    // Pass back as the cursor parameter to fetch the next slice; null on the last slice
+    private String nextCursor;
+}
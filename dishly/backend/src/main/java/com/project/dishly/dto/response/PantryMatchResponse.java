@@ -0,0 +1,25 @@
+package com.project.dishly.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a recipe matched against a pantry.
+ * Contains the recipe card and which of its ingredients the pantry lacks.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PantryMatchResponse {
+    
+    private RecipeListResponse recipe;
+    
+    private Integer matchedCount;
+    
+    private Integer missingCount;
+    
+    private List<String> missingIngredients;
+}
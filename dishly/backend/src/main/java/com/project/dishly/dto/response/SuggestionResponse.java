@@ -0,0 +1,19 @@
+package com.project.dishly.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for an autocomplete suggestion.
+ * Contains the suggested phrase and its popularity weight.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+    
+    private String text;
+    
+    private Long weight;
+}
@@ -1,7 +1,9 @@
 package com.project.dishly.exception;
 
+import com.mongodb.MongoTimeoutException;
 import com.project.dishly.dto.response.ErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -105,6 +107,28 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
     
+    /**
+     * Handle database unavailability (no pooled connection within the wait time, no reachable
+     * server) - returns 503 so clients and load balancers back off instead of retrying at once
+     */
+    @ExceptionHandler({DataAccessResourceFailureException.class, MongoTimeoutException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailable(
+            Exception ex,
+            HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "The database is busy or unreachable, please retry shortly",
+                request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(errorResponse);
+    }
+    
     /**
      * Handle all other exceptions - returns 500
      */
@@ -20,4 +20,9 @@ public class Ingredient {
     private String unit;
     
     private Integer order;
+    
+    /**
+     * Canonical dictionary name (case, plurals and synonyms folded), set on every recipe write.
+     */
+    private String canonicalName;
 }
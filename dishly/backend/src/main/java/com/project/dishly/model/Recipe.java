@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -18,6 +19,12 @@ import java.util.List;
  * Contains comprehensive recipe information including ingredients, instructions, and metadata.
  */
 @Document(collection = "recipes")
+@CompoundIndex(name = "public_like_count_idx", def = "{'isPublic': 1, 'likeCount': -1}")
+@CompoundIndex(name = "public_feed_idx", def = "{'isPublic': 1, '_id': -1}")
+@CompoundIndex(name = "public_category_feed_idx", def = "{'isPublic': 1, 'categories': 1, '_id': -1}")
+@CompoundIndex(name = "user_feed_idx", def = "{'userId': 1, '_id': -1}")
+@CompoundIndex(name = "user_category_feed_idx", def = "{'userId': 1, 'categories': 1, '_id': -1}")
+@CompoundIndex(name = "user_tag_feed_idx", def = "{'userId': 1, 'tags': 1, '_id': -1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -51,6 +58,8 @@ public class Recipe {
     
     private Integer ratingCount = 0;
     
+    private Double ratingSum = 0.0;
+    
     private Integer likeCount = 0;
     
     private List<String> imageUrls;
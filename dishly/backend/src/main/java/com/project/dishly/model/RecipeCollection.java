@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -16,6 +17,7 @@ import java.util.List;
  * Allows users to organize and group recipes together.
  */
 @Document(collection = "collections")
+@CompoundIndex(name = "user_recipe_idx", def = "{'userId': 1, 'recipeIds': 1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -2,8 +2,11 @@ package com.project.dishly.repository;
 
 import com.project.dishly.model.Like;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -11,7 +14,7 @@ import java.util.Optional;
  * Provides database access methods for like queries.
  */
 @Repository
-public interface LikeRepository extends MongoRepository<Like, String> {
+public interface LikeRepository extends MongoRepository<Like, String>, LikeRepositoryCustom {
     
     /**
      * Find a like by recipe ID and user ID.
@@ -22,6 +25,26 @@ public interface LikeRepository extends MongoRepository<Like, String> {
      */
     Optional<Like> findByRecipeIdAndUserId(String recipeId, String userId);
     
+    /**
+     * Check if a user has liked a specific recipe.
+     *
+     * @param recipeId the recipe ID
+     * @param userId the user ID
+     * @return true if like exists, false otherwise
+     */
+    boolean existsByRecipeIdAndUserId(String recipeId, String userId);
+    
+    /**
+     * Find a user's likes among a set of recipes in a single $in query.
+     * Only the recipe ID is projected.
+     *
+     * @param userId the user ID
+     * @param recipeIds the recipe IDs to check
+     * @return list of likes with only recipeId populated
+     */
+    @Query(fields = "{ 'recipeId': 1 }")
+    List<Like> findByUserIdAndRecipeIdIn(String userId, Collection<String> recipeIds);
+    
     /**
      * Count likes for a recipe.
      *
@@ -35,6 +58,7 @@ public interface LikeRepository extends MongoRepository<Like, String> {
      *
      * @param recipeId the recipe ID
      * @param userId the user ID
+     * @return number of likes deleted (0 or 1)
      */
-    void deleteByRecipeIdAndUserId(String recipeId, String userId);
+    long deleteByRecipeIdAndUserId(String recipeId, String userId);
 }
@@ -0,0 +1,18 @@
+package com.project.dishly.repository;
+
+/**
+ * Custom like operations that need idempotent upsert semantics.
+ */
+public interface LikeRepositoryCustom {
+    
+    /**
+     * Record a user's like for a recipe if it does not exist yet.
+     * Safe to call concurrently; relies on the unique (recipeId, userId) index.
+     *
+     * @param recipeId the recipe ID
+     * @param userId the user ID
+     * @param username the user's display name
+     * @return true if a new like was created, false if the user had already liked the recipe
+     */
+    boolean insertIfAbsent(String recipeId, String userId, String username);
+}
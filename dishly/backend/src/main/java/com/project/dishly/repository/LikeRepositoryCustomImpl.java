@@ -0,0 +1,35 @@
+package com.project.dishly.repository;
+
+import com.project.dishly.model.Like;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * MongoTemplate-backed implementation of {@link LikeRepositoryCustom}.
+ */
+public class LikeRepositoryCustomImpl implements LikeRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public boolean insertIfAbsent(String recipeId, String userId, String username) {
+        Query query = Query.query(Criteria.where("recipeId").is(recipeId).and("userId").is(userId));
+        Update update = new Update()
+                .setOnInsert("username", username)
+                .setOnInsert("createdAt", LocalDateTime.now());
+        
+        try {
+            return mongoTemplate.upsert(query, update, Like.class).getUpsertedId() != null;
+        } catch (DuplicateKeyException ex) {
+            // A concurrent request inserted the same like first
+            return false;
+        }
+    }
+}
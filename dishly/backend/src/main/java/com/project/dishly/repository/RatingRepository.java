@@ -12,7 +12,7 @@ import java.util.Optional;
  * Provides database access methods for rating queries.
  */
 @Repository
-public interface RatingRepository extends MongoRepository<Rating, String> {
+public interface RatingRepository extends MongoRepository<Rating, String>, RatingRepositoryCustom {
     
     /**
      * Find all ratings for a specific recipe.
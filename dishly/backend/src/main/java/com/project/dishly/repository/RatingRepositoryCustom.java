@@ -0,0 +1,20 @@
+package com.project.dishly.repository;
+
+import com.project.dishly.model.Rating;
+
+/**
+ * Custom rating operations that need atomic upsert semantics.
+ */
+public interface RatingRepositoryCustom {
+    
+    /**
+     * Atomically create or update a user's rating for a recipe.
+     *
+     * @param recipeId the recipe ID
+     * @param userId the user ID
+     * @param username the user's display name (stored on insert only)
+     * @param rating the rating value
+     * @return the rating as it was before this call, or null if it was newly created
+     */
+    Rating upsertRating(String recipeId, String userId, String username, Double rating);
+}
@@ -0,0 +1,38 @@
+package com.project.dishly.repository;
+
+import com.project.dishly.model.Rating;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * MongoTemplate-backed implementation of {@link RatingRepositoryCustom}.
+ */
+public class RatingRepositoryCustomImpl implements RatingRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public Rating upsertRating(String recipeId, String userId, String username, Double rating) {
+        LocalDateTime now = LocalDateTime.now();
+        
+        Query query = Query.query(Criteria.where("recipeId").is(recipeId).and("userId").is(userId));
+        Update update = new Update()
+                .set("rating", rating)
+                .set("updatedAt", now)
+                .setOnInsert("username", username)
+                .setOnInsert("createdAt", now);
+        
+        return mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().upsert(true).returnNew(false),
+                Rating.class);
+    }
+}
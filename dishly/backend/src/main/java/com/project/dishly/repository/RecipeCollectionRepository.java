@@ -11,7 +11,7 @@ import java.util.List;
  * Provides database access methods for recipe collection queries.
  */
 @Repository
-public interface RecipeCollectionRepository extends MongoRepository<RecipeCollection, String> {
+public interface RecipeCollectionRepository extends MongoRepository<RecipeCollection, String>, RecipeCollectionRepositoryCustom {
     
     /**
      * Find all collections belonging to a specific user.
@@ -0,0 +1,70 @@
+package com.project.dishly.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Custom collection operations that change membership in place and read recipe IDs
+ * without loading the whole ID list.
+ */
+public interface RecipeCollectionRepositoryCustom {
+    
+    /**
+     * Find a user's collections with their recipe counts but without their recipe IDs.
+     *
+     * @param userId the user ID
+     * @return list of collection summaries
+     */
+    List<CollectionSummary> findSummariesByUserId(String userId);
+    
+    /**
+     * Add a recipe to a collection owned by the user with an atomic $addToSet.
+     *
+     * @param collectionId the collection ID
+     * @param userId the owner's user ID
+     * @param recipeId the recipe ID to add
+     * @return the updated collection summary, or null if no owned collection matched
+     */
+    CollectionSummary addRecipe(String collectionId, String userId, String recipeId);
+    
+    /**
+     * Remove a recipe from a collection owned by the user with an atomic $pull.
+     *
+     * @param collectionId the collection ID
+     * @param userId the owner's user ID
+     * @param recipeId the recipe ID to remove
+     * @return the updated collection summary, or null if no owned collection matched
+     */
+    CollectionSummary removeRecipe(String collectionId, String userId, String recipeId);
+    
+    /**
+     * Read one window of a collection's recipe IDs, in the order they were added.
+     *
+     * @param collectionId the collection ID
+     * @param offset number of recipe IDs to skip
+     * @param limit maximum number of recipe IDs to return
+     * @return the window and collection metadata, or null if the collection does not exist
+     */
+    RecipeIdSlice findRecipeIdSlice(String collectionId, int offset, int limit);
+    
+    /**
+     * Find the IDs of a user's collections that contain a recipe.
+     *
+     * @param userId the user ID
+     * @param recipeId the recipe ID
+     * @return list of collection IDs
+     */
+    List<String> findIdsByUserIdContainingRecipe(String userId, String recipeId);
+    
+    /**
+     * A collection projected to its recipe count.
+     */
+    record CollectionSummary(String id, String name, int recipeCount, LocalDateTime createdAt) {
+    }
+    
+    /**
+     * A window of a collection's recipe IDs with the owner and total count.
+     */
+    record RecipeIdSlice(String id, String userId, List<String> recipeIds, int recipeCount) {
+    }
+}
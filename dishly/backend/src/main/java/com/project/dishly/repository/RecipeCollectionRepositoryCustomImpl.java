@@ -0,0 +1,81 @@
+package com.project.dishly.repository;
+
+import com.project.dishly.model.RecipeCollection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.MongoExpression;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * MongoTemplate-backed implementation of {@link RecipeCollectionRepositoryCustom}.
+ */
+public class RecipeCollectionRepositoryCustomImpl implements RecipeCollectionRepositoryCustom {
+    
+    // Computed server-side so the recipe ID array never leaves the database
+    private static final MongoExpression RECIPE_COUNT = MongoExpression.create("{ $size: { $ifNull: ['$recipeIds', []] } }");
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public List<CollectionSummary> findSummariesByUserId(String userId) {
+        Query query = summaryFields(Query.query(Criteria.where("userId").is(userId)));
+        return mongoTemplate.find(query, CollectionSummary.class, collectionName());
+    }
+    
+    @Override
+    public CollectionSummary addRecipe(String collectionId, String userId, String recipeId) {
+        return modifyOwned(collectionId, userId, new Update().addToSet("recipeIds", recipeId));
+    }
+    
+    @Override
+    public CollectionSummary removeRecipe(String collectionId, String userId, String recipeId) {
+        return modifyOwned(collectionId, userId, new Update().pull("recipeIds", recipeId));
+    }
+    
+    @Override
+    public RecipeIdSlice findRecipeIdSlice(String collectionId, int offset, int limit) {
+        Query query = Query.query(Criteria.where("_id").is(collectionId));
+        query.fields()
+                .include("userId")
+                .slice("recipeIds", offset, limit)
+                .projectAs(RECIPE_COUNT, "recipeCount");
+        return mongoTemplate.findOne(query, RecipeIdSlice.class, collectionName());
+    }
+    
+    @Override
+    public List<String> findIdsByUserIdContainingRecipe(String userId, String recipeId) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("recipeIds").is(recipeId));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, RecipeCollection.class).stream()
+                .map(RecipeCollection::getId)
+                .collect(Collectors.toList());
+    }
+    
+    private CollectionSummary modifyOwned(String collectionId, String userId, Update update) {
+        Query query = summaryFields(Query.query(Criteria.where("_id").is(collectionId).and("userId").is(userId)));
+        return mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                CollectionSummary.class,
+                collectionName());
+    }
+    
+    private static Query summaryFields(Query query) {
+        query.fields()
+                .include("name", "createdAt")
+                .projectAs(RECIPE_COUNT, "recipeCount");
+        return query;
+    }
+    
+    private String collectionName() {
+        return mongoTemplate.getCollectionName(RecipeCollection.class);
+    }
+}
@@ -7,14 +7,25 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository for Recipe entity operations.
  * Provides database access methods for recipe queries and searches.
  */
 @Repository
-public interface RecipeRepository extends MongoRepository<Recipe, String> {
+public interface RecipeRepository extends MongoRepository<Recipe, String>, RecipeRepositoryCustom {
+    
+    /**
+     * Field projection for card-level listings (RecipeListResponse).
+     * Leaves out ingredients, instructions and other detail-only fields so list queries
+     * transfer and decode only what a recipe card displays.
+     */
+    String CARD_FIELDS = "{ 'userId': 1, 'username': 1, 'title': 1, 'imageUrls': 1, 'prepTimeMinutes': 1, "
+            + "'cookTimeMinutes': 1, 'servings': 1, 'difficulty': 1, 'categories': 1, 'isPublic': 1, "
+            + "'averageRating': 1, 'ratingCount': 1, 'ratingSum': 1, 'likeCount': 1 }";
     
     /**
      * Find all recipes belonging to a specific user.
@@ -22,6 +33,7 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param userId the user ID
      * @return list of recipes
      */
+    @Query(fields = CARD_FIELDS)
     List<Recipe> findByUserId(String userId);
     
     /**
@@ -31,6 +43,7 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param title the title search text
      * @return list of matching recipes
      */
+    @Query(fields = CARD_FIELDS)
     List<Recipe> findByUserIdAndTitleContainingIgnoreCase(String userId, String title);
     
     /**
@@ -46,6 +59,7 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param pageable pagination information
      * @return page of recipes
      */
+    @Query(fields = CARD_FIELDS)
     Page<Recipe> findByIsPublicTrue(Pageable pageable);
     
     /**
@@ -55,6 +69,7 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param pageable pagination information
      * @return page of recipes
      */
+    @Query(fields = CARD_FIELDS)
     Page<Recipe> findByIsPublicTrueAndTitleContainingIgnoreCase(String title, Pageable pageable);
     
     /**
@@ -64,6 +79,7 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param pageable pagination information
      * @return page of recipes
      */
+    @Query(fields = CARD_FIELDS)
     Page<Recipe> findByIsPublicTrueAndCategoriesContaining(String category, Pageable pageable);
     
     /**
@@ -73,7 +89,7 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param pageable pagination information
      * @return page of recipes
      */
-    @Query("{ 'isPublic': true, 'categories': { $regex: ?0, $options: 'i' } }")
+    @Query(value = "{ 'isPublic': true, 'categories': { $regex: ?0, $options: 'i' } }", fields = CARD_FIELDS)
     Page<Recipe> findByIsPublicTrueAndCategoriesContainingIgnoreCase(String category, Pageable pageable);
     
     /**
@@ -84,7 +100,7 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param pageable pagination information
      * @return page of recipes
      */
-    @Query("{ 'isPublic': true, 'title': { $regex: ?0, $options: 'i' }, 'categories': { $regex: ?1, $options: 'i' } }")
+    @Query(value = "{ 'isPublic': true, 'title': { $regex: ?0, $options: 'i' }, 'categories': { $regex: ?1, $options: 'i' } }", fields = CARD_FIELDS)
     Page<Recipe> findByIsPublicTrueAndTitleContainingIgnoreCaseAndCategoriesContainingIgnoreCase(String title, String category, Pageable pageable);
     
     /**
@@ -94,6 +110,7 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param category the category to search for
      * @return list of recipes
      */
+    @Query(fields = CARD_FIELDS)
     List<Recipe> findByUserIdAndCategoriesContaining(String userId, String category);
     
     /**
@@ -103,6 +120,7 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param tag the tag to search for
      * @return list of recipes
      */
+    @Query(fields = CARD_FIELDS)
     List<Recipe> findByUserIdAndTagsContaining(String userId, String tag);
     
     /**
@@ -113,17 +131,28 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param ingredientName the ingredient name to search for
      * @return list of recipes containing the ingredient
      */
-    @Query("{ 'userId': ?0, 'ingredients.name': { $regex: ?1, $options: 'i' } }")
+    @Query(value = "{ 'userId': ?0, 'ingredients.name': { $regex: ?1, $options: 'i' } }", fields = CARD_FIELDS)
     List<Recipe> findByUserIdAndIngredientName(String userId, String ingredientName);
     
     /**
      * Find recipes by a list of IDs.
      *
      * @param ids the list of recipe IDs
-     * @return list of recipes matching the IDs
+     * @return list of recipes matching the IDs, projected to card fields
      */
+    @Query(fields = CARD_FIELDS)
     List<Recipe> findByIdIn(List<String> ids);
     
+    /**
+     * Find recipes by a list of IDs, projected to what shopping list generation needs:
+     * ingredients plus the owner and visibility fields used to authorize access.
+     *
+     * @param ids the list of recipe IDs
+     * @return list of recipes matching the IDs
+     */
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ '_id': 1, 'userId': 1, 'isPublic': 1, 'ingredients': 1 }")
+    List<Recipe> findShoppingFieldsByIdIn(Collection<String> ids);
+    
     /**
      * Search public recipes by multiple fields (title, description, tags, username).
      * Uses MongoDB text search capabilities.
@@ -132,7 +161,7 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param pageable pagination information
      * @return page of recipes matching the search
      */
-    @Query("{ 'isPublic': true, $text: { $search: ?0 } }")
+    @Query(value = "{ 'isPublic': true, $text: { $search: ?0 } }", fields = CARD_FIELDS)
     Page<Recipe> searchPublicRecipes(String searchTerm, Pageable pageable);
     
     /**
@@ -142,6 +171,7 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param pageable pagination information
      * @return page of recipes
      */
+    @Query(fields = CARD_FIELDS)
     Page<Recipe> findByIsPublicTrueAndUsernameContainingIgnoreCase(String username, Pageable pageable);
     
     /**
@@ -151,6 +181,26 @@ public interface RecipeRepository extends MongoRepository<Recipe, String> {
      * @param pageable pagination information
      * @return page of recipes
      */
-    @Query("{ 'isPublic': true, 'description': { $regex: ?0, $options: 'i' } }")
+    @Query(value = "{ 'isPublic': true, 'description': { $regex: ?0, $options: 'i' } }", fields = CARD_FIELDS)
     Page<Recipe> findByIsPublicTrueAndDescriptionContainingIgnoreCase(String description, Pageable pageable);
+    
+    /**
+     * Find public recipes projected to their ID and like count only.
+     * Backed by the (isPublic, likeCount) compound index; used to seed the trending leaderboard.
+     *
+     * @param pageable limit and sort (expected to be likeCount descending)
+     * @return list of recipes with only id and likeCount populated
+     */
+    @Query(value = "{ 'isPublic': true }", fields = "{ '_id': 1, 'likeCount': 1 }")
+    List<Recipe> findPublicLikeCounts(Pageable pageable);
+    
+    /**
+     * Stream all public recipes projected to the fields used by the in-process search and suggestion indexes.
+     * The caller must close the stream.
+     *
+     * @return stream of recipes with only searchable fields populated
+     */
+    @Query(value = "{ 'isPublic': true }", fields = "{ 'title': 1, 'description': 1, 'tags': 1, 'categories': 1, "
+            + "'ingredients.name': 1, 'ingredients.canonicalName': 1, 'username': 1, 'isPublic': 1, 'likeCount': 1, 'averageRating': 1 }")
+    Stream<Recipe> streamPublicSearchFields();
 }
@@ -0,0 +1,96 @@
+package com.project.dishly.repository;
+
+import com.project.dishly.model.Recipe;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+/**
+ * Custom recipe operations that need targeted, atomic updates
+ * instead of rewriting the whole recipe document.
+ */
+public interface RecipeRepositoryCustom {
+    
+    /**
+     * Atomically apply a change to a recipe's running rating totals and
+     * recompute its average rating in the same update.
+     *
+     * @param recipeId the recipe ID
+     * @param sumDelta amount to add to the rating sum
+     * @param countDelta amount to add to the rating count
+     * @return the updated recipe, or null if the recipe does not exist
+     */
+    Recipe applyRatingDelta(String recipeId, double sumDelta, int countDelta);
+    
+    /**
+     * Atomically add to a recipe's like count with a targeted $inc.
+     * Decrements never take the count below zero.
+     *
+     * @param recipeId the recipe ID
+     * @param delta amount to add (negative to decrement)
+     * @return the updated recipe, or null if no recipe was updated
+     */
+    Recipe incrementLikeCount(String recipeId, int delta);
+    
+    /**
+     * Apply a partial update to a recipe owned by the given user.
+     *
+     * @param recipeId the recipe ID
+     * @param userId the owner's user ID
+     * @param update the fields to set
+     * @return the updated recipe, or null if no recipe with that ID is owned by the user
+     */
+    Recipe updateOwnedRecipe(String recipeId, String userId, Update update);
+    
+    /**
+     * Atomically flip the visibility of a recipe owned by the given user.
+     *
+     * @param recipeId the recipe ID
+     * @param userId the owner's user ID
+     * @return the updated recipe, or null if no recipe with that ID is owned by the user
+     */
+    Recipe toggleVisibility(String recipeId, String userId);
+    
+    /**
+     * Keyset query over public recipes, newest first.
+     * Any combination of filters may be null.
+     *
+     * @param titleContains case-insensitive title substring
+     * @param category exact category
+     * @param textSearch $text search terms (title, description, tags, username)
+     * @param afterId return recipes older than this ID (null for the first slice)
+     * @param limit maximum number of recipes to return
+     * @return list of recipes ordered by _id descending
+     */
+    List<Recipe> findPublicSlice(String titleContains, String category, String textSearch, String afterId, int limit);
+    
+    /**
+     * Keyset query over a user's recipes, newest first.
+     * Any combination of filters may be null.
+     *
+     * @param userId the owner's user ID
+     * @param titleContains case-insensitive title substring
+     * @param category exact category
+     * @param tag exact tag
+     * @param afterId return recipes older than this ID (null for the first slice)
+     * @param limit maximum number of recipes to return
+     * @return list of recipes ordered by _id descending
+     */
+    List<Recipe> findUserSlice(String userId, String titleContains, String category, String tag, String afterId, int limit);
+    
+    /**
+     * Apply buffered counter deltas to many recipes in a single unordered bulk write.
+     *
+     * @param deltas the per-recipe deltas
+     * @return the deltas the server reported as not written
+     * @throws org.springframework.dao.DataAccessException if the outcome of the write is unknown
+     *         (e.g. the connection failed after sending it), so some deltas may have been applied
+     */
+    List<CounterDelta> applyCounterDeltas(List<CounterDelta> deltas);
+    
+    /**
+     * Accumulated change to one recipe's like and rating counters.
+     */
+    record CounterDelta(String recipeId, long likeDelta, double ratingSumDelta, long ratingCountDelta) {
+    }
+}
@@ -0,0 +1,198 @@
+package com.project.dishly.repository;
+
+import com.project.dishly.model.Recipe;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * MongoTemplate-backed implementation of {@link RecipeRepositoryCustom}.
+ */
+public class RecipeRepositoryCustomImpl implements RecipeRepositoryCustom {
+    
+    /**
+     * Current rating sum; recipes written before ratingSum existed derive it from average * count.
+     */
+    private static final Document CURRENT_RATING_SUM = new Document("$ifNull", List.of(
+            "$ratingSum",
+            new Document("$multiply", List.of(
+                    new Document("$ifNull", List.of("$averageRating", 0.0)),
+                    new Document("$ifNull", List.of("$ratingCount", 0))))));
+    
+    private static final Document CURRENT_RATING_COUNT = new Document("$ifNull", List.of("$ratingCount", 0));
+    
+    private static final Document CURRENT_LIKE_COUNT = new Document("$ifNull", List.of("$likeCount", 0));
+    
+    private static final String[] CARD_FIELD_NAMES =
+            Document.parse(RecipeRepository.CARD_FIELDS).keySet().toArray(String[]::new);
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public Recipe applyRatingDelta(String recipeId, double sumDelta, int countDelta) {
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(recipeId)),
+                ratingDeltaUpdate(new Document(), sumDelta, countDelta),
+                FindAndModifyOptions.options().returnNew(true),
+                Recipe.class);
+    }
+    
+    @Override
+    public Recipe incrementLikeCount(String recipeId, int delta) {
+        Criteria criteria = Criteria.where("_id").is(recipeId);
+        if (delta < 0) {
+            criteria = criteria.and("likeCount").gte(-delta);
+        }
+        
+        return mongoTemplate.findAndModify(
+                Query.query(criteria),
+                new Update().inc("likeCount", delta),
+                FindAndModifyOptions.options().returnNew(true),
+                Recipe.class);
+    }
+    
+    @Override
+    public Recipe updateOwnedRecipe(String recipeId, String userId, Update update) {
+        update.set("updatedAt", LocalDateTime.now());
+        
+        return mongoTemplate.findAndModify(
+                ownedBy(recipeId, userId),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Recipe.class);
+    }
+    
+    @Override
+    public Recipe toggleVisibility(String recipeId, String userId) {
+        // Raw pipeline stages bypass entity mapping, so pass a java.util.Date for updatedAt
+        AggregationUpdate update = AggregationUpdate.from(List.of(
+                setStage(new Document("isPublic", new Document("$not", List.of("$isPublic")))
+                        .append("updatedAt", new Date()))));
+        
+        return mongoTemplate.findAndModify(
+                ownedBy(recipeId, userId),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Recipe.class);
+    }
+    
+    @Override
+    public List<CounterDelta> applyCounterDeltas(List<CounterDelta> deltas) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class);
+        for (CounterDelta delta : deltas) {
+            Document likeFields = new Document();
+            if (delta.likeDelta() != 0) {
+                likeFields.append("likeCount", new Document("$max", List.of(0,
+                        new Document("$add", List.of(CURRENT_LIKE_COUNT, delta.likeDelta())))));
+            }
+            UpdateDefinition update = delta.ratingSumDelta() != 0.0 || delta.ratingCountDelta() != 0
+                    ? ratingDeltaUpdate(likeFields, delta.ratingSumDelta(), delta.ratingCountDelta())
+                    : AggregationUpdate.from(List.of(setStage(likeFields)));
+            operations.updateOne(Query.query(Criteria.where("_id").is(delta.recipeId())), update);
+        }
+        
+        // Only reported write errors are known not to have applied; any other failure propagates
+        try {
+            operations.execute();
+            return List.of();
+        } catch (BulkOperationException ex) {
+            return ex.getErrors().stream()
+                    .map(error -> deltas.get(error.getIndex()))
+                    .collect(Collectors.toList());
+        }
+    }
+    
+    @Override
+    public List<Recipe> findPublicSlice(String titleContains, String category, String textSearch, String afterId, int limit) {
+        Criteria criteria = Criteria.where("isPublic").is(true);
+        if (titleContains != null) {
+            criteria.and("title").regex(Pattern.quote(titleContains), "i");
+        }
+        if (category != null) {
+            // Exact, so the (isPublic, categories, _id) index also serves the _id sort
+            criteria.and("categories").is(category);
+        }
+        
+        Query query = Query.query(criteria);
+        if (textSearch != null) {
+            query.addCriteria(TextCriteria.forDefaultLanguage().matching(textSearch));
+        }
+        return findSlice(query, criteria, afterId, limit);
+    }
+    
+    @Override
+    public List<Recipe> findUserSlice(String userId, String titleContains, String category, String tag, String afterId, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (titleContains != null) {
+            criteria.and("title").regex(Pattern.quote(titleContains), "i");
+        }
+        if (category != null) {
+            criteria.and("categories").is(category);
+        }
+        if (tag != null) {
+            criteria.and("tags").is(tag);
+        }
+        return findSlice(Query.query(criteria), criteria, afterId, limit);
+    }
+    
+    /**
+     * Run a keyset query ordered by _id descending, continuing after the given ID.
+     * Served by the (isPublic, _id) / (userId, _id) compound indexes without skipping documents.
+     * Results are projected to the card fields used by list responses.
+     */
+    private List<Recipe> findSlice(Query query, Criteria criteria, String afterId, int limit) {
+        if (afterId != null) {
+            criteria.and("_id").lt(new ObjectId(afterId));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "_id")).limit(limit);
+        query.fields().include(CARD_FIELD_NAMES);
+        return mongoTemplate.find(query, Recipe.class);
+    }
+    
+    /**
+     * Pipeline update adding to the rating totals and recomputing the average;
+     * the second stage sees the totals written by the first.
+     *
+     * @param fields additional fields to set in the first stage
+     * @param sumDelta amount to add to the rating sum
+     * @param countDelta amount to add to the rating count
+     * @return the pipeline update
+     */
+    private static AggregationUpdate ratingDeltaUpdate(Document fields, double sumDelta, long countDelta) {
+        return AggregationUpdate.from(List.of(
+                setStage(fields
+                        .append("ratingSum", new Document("$add", List.of(CURRENT_RATING_SUM, sumDelta)))
+                        .append("ratingCount", new Document("$add", List.of(CURRENT_RATING_COUNT, countDelta)))),
+                setStage(new Document("averageRating", new Document("$cond", List.of(
+                        new Document("$gt", List.of("$ratingCount", 0)),
+                        new Document("$divide", List.of("$ratingSum", "$ratingCount")),
+                        0.0))))));
+    }
+    
+    private static Query ownedBy(String recipeId, String userId) {
+        return Query.query(Criteria.where("_id").is(recipeId).and("userId").is(userId));
+    }
+    
+    private static AggregationOperation setStage(Document fields) {
+        return context -> new Document("$set", fields);
+    }
+}
@@ -11,7 +11,7 @@ import java.util.List;
  * Provides database access methods for shopping list queries.
  */
 @Repository
-public interface ShoppingListRepository extends MongoRepository<ShoppingList, String> {
+public interface ShoppingListRepository extends MongoRepository<ShoppingList, String>, ShoppingListRepositoryCustom {
     
     /**
      * Find all shopping lists belonging to a specific user.
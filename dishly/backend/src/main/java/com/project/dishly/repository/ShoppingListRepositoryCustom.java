@@ -0,0 +1,23 @@
+package com.project.dishly.repository;
+
+import com.project.dishly.model.ShoppingList;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Custom shopping list operations that update items in place instead of rewriting the list.
+ */
+public interface ShoppingListRepositoryCustom {
+    
+    /**
+     * Apply an update to a shopping list if it belongs to the user and matches the extra
+     * item conditions, in a single atomic findAndModify.
+     *
+     * @param listId the shopping list ID
+     * @param userId the owner's user ID
+     * @param itemConditions additional criteria on the items (e.g. that an index exists)
+     * @param update the update to apply (typically positional $set on items.&lt;index&gt;)
+     * @return the updated list, or null if no list matched
+     */
+    ShoppingList updateOwnedList(String listId, String userId, Criteria itemConditions, Update update);
+}
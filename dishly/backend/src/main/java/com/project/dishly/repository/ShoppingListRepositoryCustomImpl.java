@@ -0,0 +1,31 @@
+package com.project.dishly.repository;
+
+import com.project.dishly.model.ShoppingList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * MongoTemplate-backed implementation of {@link ShoppingListRepositoryCustom}.
+ */
+public class ShoppingListRepositoryCustomImpl implements ShoppingListRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public ShoppingList updateOwnedList(String listId, String userId, Criteria itemConditions, Update update) {
+        Query query = Query.query(new Criteria().andOperator(
+                Criteria.where("_id").is(listId).and("userId").is(userId),
+                itemConditions));
+        
+        return mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                ShoppingList.class);
+    }
+}
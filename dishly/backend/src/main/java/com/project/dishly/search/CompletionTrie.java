@@ -0,0 +1,227 @@
+package com.project.dishly.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Weighted radix trie for top-K prefix completion.
+ * Edges carry string labels (single-child chains are merged), and every node caches the
+ * largest weight in its subtree so a completion query expands nodes best-first and stops
+ * after K results instead of walking every key under the prefix.
+ *
+ * Not thread-safe; callers synchronize access.
+ */
+public class CompletionTrie {
+
+    private final Node root = new Node("");
+
+    private int size = 0;
+
+    /**
+     * Adjust the weight of a key, inserting it if absent.
+     * A key whose weight drops to zero or below is removed.
+     *
+     * @param key normalized key
+     * @param display text to return for the key (kept from the first insertion)
+     * @param delta weight to add (negative to subtract)
+     */
+    public void add(String key, String display, long delta) {
+        if (key.isEmpty()) {
+            return;
+        }
+
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                if (delta <= 0) {
+                    return;
+                }
+                child = new Node(key.substring(i));
+                node.children.put(key.charAt(i), child);
+                path.add(child);
+                node = child;
+                break;
+            }
+
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                if (delta <= 0) {
+                    return;
+                }
+                // Split the edge at the point where the key diverges
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.put(child.label.charAt(0), child);
+                middle.maxWeight = child.maxWeight;
+                node.children.put(key.charAt(i), middle);
+                child = middle;
+            }
+            path.add(child);
+            node = child;
+            i += common;
+        }
+
+        boolean wasPresent = node.weight > 0;
+        node.weight += delta;
+        if (node.weight > 0) {
+            if (node.display == null) {
+                node.display = display;
+            }
+            if (!wasPresent) {
+                size++;
+            }
+        } else {
+            node.weight = 0;
+            node.display = null;
+            if (wasPresent) {
+                size--;
+            }
+        }
+
+        compactAndRecompute(path);
+    }
+
+    /**
+     * Get the highest-weighted keys starting with a prefix, heaviest first.
+     *
+     * @param prefix normalized prefix
+     * @param limit maximum number of completions
+     * @return completions in descending weight order
+     */
+    public List<Completion> complete(String prefix, int limit) {
+        List<Completion> results = new ArrayList<>();
+        if (limit <= 0) {
+            return results;
+        }
+
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.children.get(prefix.charAt(i));
+            if (child == null) {
+                return results;
+            }
+            int length = Math.min(child.label.length(), prefix.length() - i);
+            if (!child.label.regionMatches(0, prefix, i, length)) {
+                return results;
+            }
+            i += length;
+            node = child;
+        }
+
+        // Best-first expansion: a node is queued by its subtree maximum, a result by its own weight
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(node, node.maxWeight, false));
+        while (!queue.isEmpty() && results.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.terminal()) {
+                results.add(new Completion(candidate.node().display, candidate.node().weight));
+                continue;
+            }
+            Node current = candidate.node();
+            if (current.weight > 0) {
+                queue.add(new Candidate(current, current.weight, true));
+            }
+            for (Node child : current.children.values()) {
+                queue.add(new Candidate(child, child.maxWeight, false));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Number of keys with a positive weight.
+     *
+     * @return key count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove empty leaves, merge value-less single-child nodes into their child and refresh the
+     * cached subtree maxima, walking from the updated node back to the root.
+     */
+    private void compactAndRecompute(List<Node> path) {
+        for (int depth = path.size() - 1; depth > 0; depth--) {
+            Node node = path.get(depth);
+            Node parent = path.get(depth - 1);
+            if (node.weight == 0 && node.children.isEmpty()) {
+                parent.children.remove(node.label.charAt(0));
+                continue;
+            }
+            if (node.weight == 0 && node.children.size() == 1) {
+                Node child = node.children.values().iterator().next();
+                node.label = node.label + child.label;
+                node.children = child.children;
+                node.weight = child.weight;
+                node.display = child.display;
+            }
+            node.maxWeight = subtreeMax(node);
+        }
+        root.maxWeight = subtreeMax(root);
+    }
+
+    private static long subtreeMax(Node node) {
+        long max = node.weight;
+        for (Node child : node.children.values()) {
+            max = Math.max(max, child.maxWeight);
+        }
+        return max;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * A completion and its weight.
+     *
+     * @param text the display text
+     * @param weight the accumulated weight
+     */
+    public record Completion(String text, long weight) {
+    }
+
+    private record Candidate(Node node, long score, boolean terminal) implements Comparable<Candidate> {
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byScore = Long.compare(other.score, score);
+            if (byScore != 0) {
+                return byScore;
+            }
+            // At equal score emit results before expanding nodes
+            return Boolean.compare(other.terminal, terminal);
+        }
+    }
+
+    private static final class Node {
+
+        private String label;
+
+        private Map<Character, Node> children = new HashMap<>();
+
+        private String display;
+
+        private long weight;
+
+        private long maxWeight;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
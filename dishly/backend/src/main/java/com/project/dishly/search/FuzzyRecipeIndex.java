@@ -0,0 +1,393 @@
+package com.project.dishly.search;
+
+import com.project.dishly.model.Ingredient;
+import com.project.dishly.model.Recipe;
+import com.project.dishly.repository.RecipeRepository;
+import com.project.dishly.service.LocalStateResyncEvent;
+import com.project.dishly.service.RecipeChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Typo-tolerant search over public recipe titles and ingredient names.
+ * Vocabulary words are indexed by their trigrams; a misspelled query word looks up only the
+ * words sharing enough trigrams with it, then verifies them with a bounded edit distance
+ * (adjacent transpositions count as one edit). Recipes are ranked by how closely they match
+ * every query word, blended with their average rating and like count.
+ */
+@Component
+public class FuzzyRecipeIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FuzzyRecipeIndex.class);
+
+    private static final double MATCH_WEIGHT = 0.75;
+
+    private static final double RATING_WEIGHT = 0.15;
+
+    private static final double POPULARITY_WEIGHT = 0.10;
+
+    /** Like count at which the popularity component reaches half its maximum */
+    private static final double POPULARITY_HALF_POINT = 10.0;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Value("${search.fuzzy.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** vocabulary word -> recipe IDs using it */
+    private final Map<String, Set<String>> wordPostings = new HashMap<>();
+
+    /** trigram -> vocabulary words containing it */
+    private final Map<String, Set<String>> trigramPostings = new HashMap<>();
+
+    private final Map<String, FuzzyRecipe> recipes = new HashMap<>();
+
+    private volatile boolean built = false;
+
+    /**
+     * Build the index once the application has started.
+     * A failure here is not fatal; the index is rebuilt lazily on first search.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            log.warn("Could not build fuzzy recipe index at startup, will retry on first search", ex);
+        }
+    }
+
+    /**
+     * Rebuild after this node may have missed recipe changes.
+     */
+    @EventListener(LocalStateResyncEvent.class)
+    public void onResync() {
+        onApplicationReady();
+    }
+
+    /**
+     * Whether the fuzzy engine is enabled.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Rebuild the index from a projected stream of all public recipes.
+     * Holds the write lock throughout so no change event is applied to a half-built index.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            built = false;
+            wordPostings.clear();
+            trigramPostings.clear();
+            recipes.clear();
+            try (Stream<Recipe> stream = recipeRepository.streamPublicSearchFields()) {
+                stream.forEach(this::put);
+            }
+            built = true;
+            log.info("Fuzzy recipe index built with {} recipes and {} words", recipes.size(), wordPostings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a recipe change to the index.
+     * Counter changes only refresh the rating and like count used for ranking.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            Recipe recipe = event.recipe();
+            FuzzyRecipe existing = recipes.get(event.recipeId());
+            if (event.type() == RecipeChangedEvent.ChangeType.COUNTERS) {
+                if (existing != null && recipe != null) {
+                    recipes.put(event.recipeId(), existing.withCounters(recipe));
+                }
+                return;
+            }
+            remove(event.recipeId());
+            if (recipe != null && Boolean.TRUE.equals(recipe.getIsPublic())) {
+                put(recipe);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search public recipes tolerating typos in each query word.
+     *
+     * @param query the free-text query
+     * @param category optional case-insensitive category substring filter
+     * @param offset number of ranked hits to skip
+     * @param limit maximum number of hits to return
+     * @return the requested window of hits and the total hit count
+     */
+    public SearchHits search(String query, String category, int offset, int limit) {
+        ensureBuilt();
+
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.tokenize(query)));
+        String categoryFilter = category != null && !category.isEmpty() ? category.toLowerCase(Locale.ROOT) : null;
+        List<Map.Entry<String, Double>> scored = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (words.isEmpty() || recipes.isEmpty()) {
+                return new SearchHits(List.of(), 0);
+            }
+
+            // recipe ID -> best similarity per query word
+            Map<String, double[]> similarities = new HashMap<>();
+            for (int i = 0; i < words.size(); i++) {
+                for (Map.Entry<String, Double> match : similarWords(words.get(i)).entrySet()) {
+                    for (String recipeId : wordPostings.get(match.getKey())) {
+                        double[] best = similarities.computeIfAbsent(recipeId, id -> new double[words.size()]);
+                        best[i] = Math.max(best[i], match.getValue());
+                    }
+                }
+            }
+
+            for (Map.Entry<String, double[]> entry : similarities.entrySet()) {
+                FuzzyRecipe recipe = recipes.get(entry.getKey());
+                if (categoryFilter != null && !recipe.hasCategoryContaining(categoryFilter)) {
+                    continue;
+                }
+                double match = 0;
+                for (double similarity : entry.getValue()) {
+                    match += similarity;
+                }
+                match /= words.size();
+                double score = MATCH_WEIGHT * match
+                        + RATING_WEIGHT * recipe.averageRating() / 5.0
+                        + POPULARITY_WEIGHT * recipe.likeCount() / (recipe.likeCount() + POPULARITY_HALF_POINT);
+                scored.add(Map.entry(entry.getKey(), score));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return SearchHits.rank(scored, offset, limit);
+    }
+
+    /**
+     * Find vocabulary words within the allowed edit distance of a query word.
+     * Candidates come from the trigram postings and must share enough trigrams to possibly
+     * be within range. A substitution, insertion or deletion destroys at most three trigrams,
+     * and an adjacent transposition up to four.
+     *
+     * @return matching word -> similarity in (0, 1]
+     */
+    private Map<String, Double> similarWords(String word) {
+        int maxEdits = maxEdits(word.length());
+        Set<String> grams = trigrams(word);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> candidates = trigramPostings.get(gram);
+            if (candidates != null) {
+                for (String candidate : candidates) {
+                    shared.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+
+        int minShared = Math.max(1, grams.size() - 4 * maxEdits);
+        Map<String, Double> matches = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            String candidate = entry.getKey();
+            if (entry.getValue() < minShared || Math.abs(candidate.length() - word.length()) > maxEdits) {
+                continue;
+            }
+            int distance = boundedDistance(word, candidate, maxEdits);
+            if (distance <= maxEdits) {
+                matches.put(candidate, 1.0 - (double) distance / Math.max(word.length(), candidate.length()));
+            }
+        }
+        return matches;
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                rebuild();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Recipe recipe) {
+        Set<String> words = new HashSet<>(TextAnalyzer.tokenize(recipe.getTitle()));
+        if (recipe.getIngredients() != null) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                words.addAll(TextAnalyzer.tokenize(ingredient.getName()));
+            }
+        }
+
+        for (String word : words) {
+            Set<String> recipeIds = wordPostings.get(word);
+            if (recipeIds == null) {
+                recipeIds = new HashSet<>();
+                wordPostings.put(word, recipeIds);
+                for (String gram : trigrams(word)) {
+                    trigramPostings.computeIfAbsent(gram, g -> new HashSet<>()).add(word);
+                }
+            }
+            recipeIds.add(recipe.getId());
+        }
+
+        List<String> categories = new ArrayList<>();
+        if (recipe.getCategories() != null) {
+            for (String category : recipe.getCategories()) {
+                if (category != null) {
+                    categories.add(category.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        recipes.put(recipe.getId(), new FuzzyRecipe(words, categories, 0, 0).withCounters(recipe));
+    }
+
+    private void remove(String recipeId) {
+        FuzzyRecipe existing = recipes.remove(recipeId);
+        if (existing == null) {
+            return;
+        }
+        for (String word : existing.words()) {
+            Set<String> recipeIds = wordPostings.get(word);
+            if (recipeIds == null) {
+                continue;
+            }
+            recipeIds.remove(recipeId);
+            if (recipeIds.isEmpty()) {
+                // Last recipe using the word; drop it from the vocabulary
+                wordPostings.remove(word);
+                for (String gram : trigrams(word)) {
+                    Set<String> gramWords = trigramPostings.get(gram);
+                    if (gramWords != null) {
+                        gramWords.remove(word);
+                        if (gramWords.isEmpty()) {
+                            trigramPostings.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of edits tolerated for a word of the given length.
+     */
+    private static int maxEdits(int length) {
+        if (length <= 2) {
+            return 0;
+        }
+        return length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Distinct trigrams of a word padded with two leading and one trailing marker, so short
+     * words and word starts get their own grams.
+     */
+    static Set<String> trigrams(String word) {
+        String padded = "$$" + word + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions),
+     * abandoned as soon as every cell in a row exceeds the bound.
+     *
+     * @return the distance, or bound + 1 if it exceeds the bound
+     */
+    static int boundedDistance(String a, String b, int bound) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], bound + 1);
+    }
+
+    private record FuzzyRecipe(Set<String> words, List<String> categories, double averageRating, int likeCount) {
+
+        FuzzyRecipe withCounters(Recipe recipe) {
+            return new FuzzyRecipe(words, categories,
+                    recipe.getAverageRating() != null ? recipe.getAverageRating() : 0.0,
+                    recipe.getLikeCount() != null ? Math.max(0, recipe.getLikeCount()) : 0);
+        }
+
+        boolean hasCategoryContaining(String categoryFilter) {
+            for (String category : categories) {
+                if (category.contains(categoryFilter)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.project.dishly.search;
+
+import com.project.dishly.model.Ingredient;
+import com.project.dishly.model.Recipe;
+import com.project.dishly.repository.RecipeRepository;
+import com.project.dishly.service.IngredientDictionary;
+import com.project.dishly.service.LocalStateResyncEvent;
+import com.project.dishly.service.RecipeChangedEvent;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * "What can I cook" matcher: ranks public recipes by how much of their ingredient list a
+ * pantry covers.
+ *
+ * Ingredient names are resolved to IngredientDictionary IDs, and each ingredient keeps a
+ * Roaring bitmap of the recipes (by dense ordinal) that use it. A pantry query ORs the
+ * pantry's posting lists to find candidates and counts, per candidate, how many of its
+ * ingredients the pantry holds; no MongoDB query runs until the page of matches is fetched.
+ */
+@Component
+public class PantryMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PantryMatcher.class);
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private IngredientDictionary ingredientDictionary;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** dictionary ingredient ID -> ordinals of recipes using it */
+    private final List<RoaringBitmap> postings = new ArrayList<>();
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+
+    /** ordinal -> recipe ID (null for free slots) */
+    private final List<String> recipeIds = new ArrayList<>();
+
+    /** ordinal -> distinct ingredient IDs of the recipe */
+    private final List<int[]> recipeIngredients = new ArrayList<>();
+
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    private volatile boolean built = false;
+
+    /**
+     * Build the index once the application has started.
+     * A failure here is not fatal; the index is rebuilt lazily on first query.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            log.warn("Could not build pantry index at startup, will retry on first query", ex);
+        }
+    }
+
+    /**
+     * Rebuild after this node may have missed recipe changes.
+     */
+    @EventListener(LocalStateResyncEvent.class)
+    public void onResync() {
+        onApplicationReady();
+    }
+
+    /**
+     * Rebuild the index from a projected stream of all public recipes.
+     * Holds the write lock throughout so no change event is applied to a half-built index.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            built = false;
+            postings.clear();
+            ordinals.clear();
+            recipeIds.clear();
+            recipeIngredients.clear();
+            freeOrdinals.clear();
+            try (Stream<Recipe> stream = recipeRepository.streamPublicSearchFields()) {
+                stream.forEach(this::put);
+            }
+            postings.forEach(RoaringBitmap::runOptimize);
+            built = true;
+            log.info("Pantry index built with {} recipes and {} ingredients", ordinals.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a recipe change to the index.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!built || event.type() == RecipeChangedEvent.ChangeType.COUNTERS) {
+                return;
+            }
+            remove(event.recipeId());
+            Recipe recipe = event.recipe();
+            if (recipe != null && Boolean.TRUE.equals(recipe.getIsPublic())) {
+                put(recipe);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find public recipes that can be cooked from a pantry with at most {@code maxMissing}
+     * ingredients missing, fewest missing first, then most pantry ingredients used.
+     *
+     * @param pantry ingredient names on hand
+     * @param maxMissing maximum number of recipe ingredients not in the pantry
+     * @param offset number of ranked matches to skip
+     * @param limit maximum number of matches to return
+     * @return the requested window of matches and the total match count
+     */
+    public PantryMatches match(Collection<String> pantry, int maxMissing, int offset, int limit) {
+        ensureBuilt();
+
+        lock.readLock().lock();
+        try {
+            Set<Integer> pantryIds = new LinkedHashSet<>();
+            for (String name : pantry) {
+                int id = ingredientDictionary.find(name);
+                if (id != IngredientDictionary.UNKNOWN && id < postings.size()) {
+                    pantryIds.add(id);
+                }
+            }
+            if (pantryIds.isEmpty()) {
+                return new PantryMatches(List.of(), 0);
+            }
+
+            RoaringBitmap[] pantryPostings = pantryIds.stream().map(postings::get).toArray(RoaringBitmap[]::new);
+            RoaringBitmap candidates = FastAggregation.or(pantryPostings);
+
+            List<PantryMatch> matches = new ArrayList<>();
+            IntIterator iterator = candidates.getIntIterator();
+            while (iterator.hasNext()) {
+                int ordinal = iterator.next();
+                int[] ingredients = recipeIngredients.get(ordinal);
+                int matched = 0;
+                for (RoaringBitmap posting : pantryPostings) {
+                    if (posting.contains(ordinal)) {
+                        matched++;
+                    }
+                }
+                int missing = ingredients.length - matched;
+                if (missing <= maxMissing) {
+                    matches.add(new PantryMatch(recipeIds.get(ordinal), matched, missing, null));
+                }
+            }
+
+            // ObjectId hex strings sort chronologically, so the reversed ID puts newer recipes first
+            matches.sort(Comparator.comparingInt(PantryMatch::missingCount)
+                    .thenComparing(Comparator.comparingInt(PantryMatch::matchedCount).reversed())
+                    .thenComparing(PantryMatch::recipeId, Comparator.reverseOrder()));
+
+            List<PantryMatch> window = new ArrayList<>();
+            for (int i = offset; i < matches.size() && window.size() < limit; i++) {
+                PantryMatch match = matches.get(i);
+                window.add(new PantryMatch(match.recipeId(), match.matchedCount(), match.missingCount(),
+                        missingIngredients(ordinals.get(match.recipeId()), pantryIds)));
+            }
+            return new PantryMatches(window, matches.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<String> missingIngredients(int ordinal, Set<Integer> pantryIds) {
+        List<String> missing = new ArrayList<>();
+        for (int ingredientId : recipeIngredients.get(ordinal)) {
+            if (!pantryIds.contains(ingredientId)) {
+                missing.add(ingredientDictionary.nameOf(ingredientId));
+            }
+        }
+        return missing;
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                rebuild();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Recipe recipe) {
+        Set<Integer> ingredients = new LinkedHashSet<>();
+        if (recipe.getIngredients() != null) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                int ingredientId = ingredientDictionary.resolve(ingredient);
+                if (ingredientId != IngredientDictionary.UNKNOWN) {
+                    ingredients.add(ingredientId);
+                }
+            }
+        }
+        if (ingredients.isEmpty()) {
+            return;
+        }
+
+        int ordinal;
+        if (freeOrdinals.isEmpty()) {
+            ordinal = recipeIds.size();
+            recipeIds.add(recipe.getId());
+            recipeIngredients.add(null);
+        } else {
+            ordinal = freeOrdinals.pop();
+            recipeIds.set(ordinal, recipe.getId());
+        }
+        int[] ids = ingredients.stream().mapToInt(Integer::intValue).toArray();
+        recipeIngredients.set(ordinal, ids);
+        ordinals.put(recipe.getId(), ordinal);
+        for (int ingredientId : ids) {
+            posting(ingredientId).add(ordinal);
+        }
+    }
+
+    private void remove(String recipeId) {
+        Integer ordinal = ordinals.remove(recipeId);
+        if (ordinal == null) {
+            return;
+        }
+        for (int ingredientId : recipeIngredients.get(ordinal)) {
+            postings.get(ingredientId).remove(ordinal);
+        }
+        recipeIds.set(ordinal, null);
+        recipeIngredients.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+    }
+
+    private RoaringBitmap posting(int ingredientId) {
+        while (postings.size() <= ingredientId) {
+            postings.add(new RoaringBitmap());
+        }
+        return postings.get(ingredientId);
+    }
+
+    /**
+     * A recipe matched against a pantry.
+     *
+     * @param recipeId the recipe ID
+     * @param matchedCount number of the recipe's ingredients in the pantry
+     * @param missingCount number of the recipe's ingredients not in the pantry
+     * @param missingIngredients names of the missing ingredients (only for returned matches)
+     */
+    public record PantryMatch(String recipeId, int matchedCount, int missingCount, List<String> missingIngredients) {
+    }
+
+    /**
+     * A window of ranked pantry matches.
+     *
+     * @param matches matches in rank order
+     * @param total total number of matching recipes
+     */
+    public record PantryMatches(List<PantryMatch> matches, long total) {
+    }
+}
@@ -0,0 +1,288 @@
+package com.project.dishly.search;
+
+import com.project.dishly.model.Ingredient;
+import com.project.dishly.model.Recipe;
+import com.project.dishly.repository.RecipeRepository;
+import com.project.dishly.service.LocalStateResyncEvent;
+import com.project.dishly.service.RecipeChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over public recipes, ranked with BM25.
+ * Indexes title, description, tags, categories, ingredient names and username with
+ * per-field weights, and is kept current from RecipeChangedEvent so searches never
+ * touch MongoDB until the matching recipes are fetched by ID.
+ */
+@Component
+public class RecipeSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeSearchIndex.class);
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private static final float TITLE_WEIGHT = 3.0f;
+
+    private static final float TAG_WEIGHT = 2.0f;
+
+    private static final float CATEGORY_WEIGHT = 2.0f;
+
+    private static final float INGREDIENT_WEIGHT = 1.5f;
+
+    private static final float USERNAME_WEIGHT = 1.0f;
+
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** term -> (recipe ID -> field-weighted term frequency) */
+    private final Map<String, Map<String, Float>> postings = new HashMap<>();
+
+    private final Map<String, IndexedRecipe> recipes = new HashMap<>();
+
+    private double totalLength = 0;
+
+    private volatile boolean built = false;
+
+    /**
+     * Build the index once the application has started.
+     * A failure here is not fatal; the index is rebuilt lazily on first search.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            log.warn("Could not build recipe search index at startup, will retry on first search", ex);
+        }
+    }
+
+    /**
+     * Rebuild after this node may have missed recipe changes.
+     */
+    @EventListener(LocalStateResyncEvent.class)
+    public void onResync() {
+        onApplicationReady();
+    }
+
+    /**
+     * Whether the index engine is enabled.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Rebuild the index from a projected stream of all public recipes.
+     * Holds the write lock throughout so no change event is applied to a half-built index.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            built = false;
+            postings.clear();
+            recipes.clear();
+            totalLength = 0;
+            try (Stream<Recipe> stream = recipeRepository.streamPublicSearchFields()) {
+                stream.forEach(this::put);
+            }
+            built = true;
+            log.info("Recipe search index built with {} recipes and {} terms", recipes.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a recipe change to the index.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Until the first build completes, the build itself will read the change from MongoDB;
+            // counter changes do not touch indexed text
+            if (!built || event.type() == RecipeChangedEvent.ChangeType.COUNTERS) {
+                return;
+            }
+            remove(event.recipeId());
+            Recipe recipe = event.recipe();
+            if (recipe != null && Boolean.TRUE.equals(recipe.getIsPublic())) {
+                put(recipe);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search public recipes, ranked by BM25 score (ties broken newest first).
+     * Any query term may match; recipes matching more and rarer terms rank higher.
+     *
+     * @param query the free-text query
+     * @param category optional case-insensitive category substring filter
+     * @param offset number of ranked hits to skip
+     * @param limit maximum number of hits to return
+     * @return the requested window of hits and the total hit count
+     */
+    public SearchHits search(String query, String category, int offset, int limit) {
+        ensureBuilt();
+
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.analyze(query));
+        String categoryFilter = category != null && !category.isEmpty() ? category.toLowerCase(Locale.ROOT) : null;
+        List<Map.Entry<String, Double>> ranked;
+
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty() || recipes.isEmpty()) {
+                return new SearchHits(List.of(), 0);
+            }
+
+            double averageLength = totalLength / recipes.size();
+            Map<String, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<String, Float> matches = postings.get(term);
+                if (matches == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (recipes.size() - matches.size() + 0.5) / (matches.size() + 0.5));
+                for (Map.Entry<String, Float> match : matches.entrySet()) {
+                    IndexedRecipe recipe = recipes.get(match.getKey());
+                    if (categoryFilter != null && !recipe.hasCategoryContaining(categoryFilter)) {
+                        continue;
+                    }
+                    double tf = match.getValue();
+                    double norm = K1 * (1 - B + B * recipe.length() / averageLength);
+                    scores.merge(match.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+            ranked = new ArrayList<>(scores.entrySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return SearchHits.rank(ranked, offset, limit);
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                rebuild();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Recipe recipe) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        length += addField(frequencies, recipe.getTitle(), TITLE_WEIGHT);
+        length += addField(frequencies, recipe.getDescription(), DESCRIPTION_WEIGHT);
+        length += addField(frequencies, recipe.getUsername(), USERNAME_WEIGHT);
+        if (recipe.getTags() != null) {
+            for (String tag : recipe.getTags()) {
+                length += addField(frequencies, tag, TAG_WEIGHT);
+            }
+        }
+        if (recipe.getCategories() != null) {
+            for (String category : recipe.getCategories()) {
+                length += addField(frequencies, category, CATEGORY_WEIGHT);
+            }
+        }
+        if (recipe.getIngredients() != null) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                length += addField(frequencies, ingredient.getName(), INGREDIENT_WEIGHT);
+            }
+        }
+
+        List<String> categories = new ArrayList<>();
+        if (recipe.getCategories() != null) {
+            for (String category : recipe.getCategories()) {
+                if (category != null) {
+                    categories.add(category.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+
+        recipes.put(recipe.getId(), new IndexedRecipe(frequencies, length, categories));
+        totalLength += length;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(recipe.getId(), entry.getValue());
+        }
+    }
+
+    private void remove(String recipeId) {
+        IndexedRecipe existing = recipes.remove(recipeId);
+        if (existing == null) {
+            return;
+        }
+        totalLength -= existing.length();
+        for (String term : existing.frequencies().keySet()) {
+            Map<String, Float> matches = postings.get(term);
+            if (matches != null) {
+                matches.remove(recipeId);
+                if (matches.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static float addField(Map<String, Float> frequencies, String text, float weight) {
+        List<String> terms = TextAnalyzer.analyze(text);
+        for (String term : terms) {
+            frequencies.merge(term, weight, Float::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    private record IndexedRecipe(Map<String, Float> frequencies, float length, List<String> categories) {
+
+        boolean hasCategoryContaining(String categoryFilter) {
+            for (String category : categories) {
+                if (category.contains(categoryFilter)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.dishly.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A window of ranked search hits from one of the in-process search indexes.
+ *
+ * @param recipeIds recipe IDs in rank order
+ * @param total total number of matching recipes
+ */
+public record SearchHits(List<String> recipeIds, long total) {
+
+    /**
+     * Rank scored recipes (highest score first, ties newest first) and cut out a page.
+     *
+     * @param scored recipe ID and score pairs; sorted in place
+     * @param offset number of ranked hits to skip
+     * @param limit maximum number of hits to return
+     * @return the requested window of hits and the total hit count
+     */
+    static SearchHits rank(List<Map.Entry<String, Double>> scored, int offset, int limit) {
+        // ObjectId hex strings sort chronologically, so the reversed ID puts newer recipes first
+        scored.sort(Map.Entry.<String, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+
+        List<String> ids = new ArrayList<>(Math.max(0, Math.min(limit, scored.size() - offset)));
+        for (int i = offset; i < scored.size() && ids.size() < limit; i++) {
+            ids.add(scored.get(i).getKey());
+        }
+        return new SearchHits(ids, scored.size());
+    }
+}
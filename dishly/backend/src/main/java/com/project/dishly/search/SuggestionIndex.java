@@ -0,0 +1,247 @@
+package com.project.dishly.search;
+
+import com.project.dishly.model.Ingredient;
+import com.project.dishly.model.Recipe;
+import com.project.dishly.repository.RecipeRepository;
+import com.project.dishly.service.LocalStateResyncEvent;
+import com.project.dishly.service.RecipeChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory autocomplete over public recipe titles, tags, categories and ingredient names.
+ * Each phrase is weighted by the popularity of the recipes using it (one plus the like count
+ * per recipe) and served from a CompletionTrie, so suggestions never touch MongoDB.
+ *
+ * Kept current from RecipeChangedEvent, including like-count changes. A periodic rebuild
+ * that runs off the request path reconciles weights with counter changes made elsewhere
+ * (write-behind flushes, rating reconciliation, other instances).
+ */
+@Component
+public class SuggestionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    private static final int MAX_PHRASE_LENGTH = 100;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Value("${suggest.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Serializes rebuilds without pinning a virtual thread during the MongoDB scan */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private CompletionTrie trie = new CompletionTrie();
+
+    /** recipe ID -> phrases it contributed and the weight it contributed them with */
+    private Map<String, Contribution> contributions = new HashMap<>();
+
+    /** Changes seen while a rebuild is streaming, replayed onto the new trie before the swap */
+    private List<RecipeChangedEvent> pendingChanges;
+
+    private volatile boolean built = false;
+
+    /**
+     * Build the suggestions once the application has started.
+     * A failure here is not fatal; the next scheduled rebuild tries again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            log.warn("Could not build recipe suggestions at startup, will retry on the next rebuild", ex);
+        }
+    }
+
+    /**
+     * Rebuild after this node may have missed recipe changes.
+     */
+    @EventListener(LocalStateResyncEvent.class)
+    public void onResync() {
+        onApplicationReady();
+    }
+
+    /**
+     * Periodically rebuild so phrase weights converge with the stored like counts.
+     */
+    @Scheduled(fixedDelayString = "${suggest.rebuild-interval-ms:600000}",
+            initialDelayString = "${suggest.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            log.warn("Recipe suggestion rebuild failed, keeping the current suggestions", ex);
+        }
+    }
+
+    /**
+     * Rebuild from a projected stream of public recipes.
+     * The new trie is built without blocking queries; changes that arrive meanwhile are
+     * replayed onto it before it replaces the current one.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            CompletionTrie newTrie = new CompletionTrie();
+            Map<String, Contribution> newContributions = new HashMap<>();
+            try {
+                try (Stream<Recipe> stream = recipeRepository.streamPublicSearchFields()) {
+                    stream.forEach(recipe -> put(newTrie, newContributions, recipe));
+                }
+            } catch (RuntimeException ex) {
+                lock.writeLock().lock();
+                try {
+                    pendingChanges = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw ex;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (RecipeChangedEvent event : pendingChanges) {
+                    apply(newTrie, newContributions, event);
+                }
+                pendingChanges = null;
+                trie = newTrie;
+                contributions = newContributions;
+                built = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Recipe suggestions built with {} phrases", newTrie.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Apply a recipe change to the suggestions.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            if (built) {
+                apply(trie, contributions, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Complete a prefix to the most popular matching phrases.
+     *
+     * @param prefix the typed prefix (case and extra whitespace are ignored)
+     * @param limit maximum number of suggestions
+     * @return suggestions, most popular first
+     */
+    public List<CompletionTrie.Completion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (!enabled || key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.complete(key, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void apply(CompletionTrie trie, Map<String, Contribution> contributions, RecipeChangedEvent event) {
+        Contribution previous = contributions.remove(event.recipeId());
+        if (previous != null) {
+            for (String key : previous.phrases().keySet()) {
+                trie.add(key, null, -previous.weight());
+            }
+        }
+        Recipe recipe = event.recipe();
+        if (recipe != null && Boolean.TRUE.equals(recipe.getIsPublic())) {
+            put(trie, contributions, recipe);
+        }
+    }
+
+    private static void put(CompletionTrie trie, Map<String, Contribution> contributions, Recipe recipe) {
+        Map<String, String> phrases = new LinkedHashMap<>();
+        addPhrase(phrases, recipe.getTitle());
+        if (recipe.getTags() != null) {
+            recipe.getTags().forEach(tag -> addPhrase(phrases, tag));
+        }
+        if (recipe.getCategories() != null) {
+            recipe.getCategories().forEach(category -> addPhrase(phrases, category));
+        }
+        if (recipe.getIngredients() != null) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                addPhrase(phrases, ingredient.getName());
+            }
+        }
+
+        long weight = 1L + (recipe.getLikeCount() != null ? Math.max(0, recipe.getLikeCount()) : 0);
+        for (Map.Entry<String, String> phrase : phrases.entrySet()) {
+            trie.add(phrase.getKey(), phrase.getValue(), weight);
+        }
+        contributions.put(recipe.getId(), new Contribution(phrases, weight));
+    }
+
+    private static void addPhrase(Map<String, String> phrases, String text) {
+        String key = normalize(text);
+        if (!key.isEmpty() && key.length() <= MAX_PHRASE_LENGTH) {
+            phrases.putIfAbsent(key, text.trim());
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Contribution(Map<String, String> phrases, long weight) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.project.dishly.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free text into index terms: splits on anything that is not a letter or digit,
+ * lower-cases, drops stop words and applies a light English suffix stemmer.
+ * The same analysis is used for documents and queries, so "tomatoes" matches "tomato"
+ * and "baking" matches "baked".
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into", "is",
+            "it", "of", "on", "or", "the", "this", "to", "with", "without");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Analyze text into a list of terms, in order and including duplicates.
+     *
+     * @param text the text to analyze (may be null)
+     * @return list of stemmed terms
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = tokenize(text);
+        terms.replaceAll(TextAnalyzer::stem);
+        return terms;
+    }
+
+    /**
+     * Split text into lower-case words without stemming, dropping stop words.
+     *
+     * @param text the text to split (may be null)
+     * @return list of words, in order and including duplicates
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    terms.add(token);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Strip common English inflections (plurals, -ing, -ed, -ly) and a final silent "e",
+     * so "bake", "baked", "bakes" and "baking" share a stem.
+     * Deliberately conservative: short words are left alone and a stem keeps at least three characters.
+     *
+     * @param token lower-case token
+     * @return the stem
+     */
+    static String stem(String token) {
+        if (token.length() <= 3 || !Character.isLetter(token.charAt(token.length() - 1))) {
+            return token;
+        }
+
+        String stem = stripInflection(token);
+        if (stem.endsWith("e") && stem.length() >= 4) {
+            return stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    private static String stripInflection(String token) {
+        int length = token.length();
+        if (token.endsWith("ies") && length > 4) {
+            return token.substring(0, length - 3) + "y";
+        }
+        if (token.endsWith("oes") || token.endsWith("ches") || token.endsWith("shes")
+                || token.endsWith("sses") || token.endsWith("xes") || token.endsWith("zes")) {
+            return token.substring(0, length - 2);
+        }
+        if (token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us") && !token.endsWith("is")) {
+            return token.substring(0, length - 1);
+        }
+        if (token.endsWith("ing") && length > 5) {
+            return undouble(token.substring(0, length - 3));
+        }
+        if (token.endsWith("ed") && length > 4) {
+            return undouble(token.substring(0, length - 2));
+        }
+        if (token.endsWith("ly") && length > 4) {
+            return token.substring(0, length - 2);
+        }
+        return token;
+    }
+
+    /**
+     * Collapse a trailing doubled consonant left behind by suffix removal ("chopped" -> "chop").
+     */
+    private static String undouble(String stem) {
+        int length = stem.length();
+        if (length >= 4) {
+            char last = stem.charAt(length - 1);
+            if (last == stem.charAt(length - 2) && "aeioulsz".indexOf(last) < 0) {
+                return stem.substring(0, length - 1);
+            }
+        }
+        return stem;
+    }
+}
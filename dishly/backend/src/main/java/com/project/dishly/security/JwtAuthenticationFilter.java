@@ -1,5 +1,6 @@
 package com.project.dishly.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +9,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -28,11 +28,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider jwtTokenProvider;
     
     @Autowired
-    private UserDetailsService userDetailsService;
+    private PrincipalCache principalCache;
     
     /**
      * Filter requests for JWT token in Authorization header.
-     * If valid token found, loads user and sets authentication.
+     * If valid token found, resolves the (cached) principal and sets authentication.
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -42,11 +42,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = getJwtFromRequest(request);
             
             if (StringUtils.hasText(jwt)) {
-                if (jwtTokenProvider.validateToken(jwt)) {
-                    String email = jwtTokenProvider.getEmailFromToken(jwt);
+                // Verify once and read the subject from the same claims
+                Claims claims = jwtTokenProvider.parse(jwt);
+                if (claims != null) {
+                    String email = claims.getSubject();
                     
                     if (email != null) {
-                        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                        UserDetails userDetails = principalCache.getPrincipal(email);
                         
                         UsernamePasswordAuthenticationToken authentication =
                                 new UsernamePasswordAuthenticationToken(
@@ -0,0 +1,107 @@
+package com.project.dishly.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the authenticated principal for a verified JWT subject without a
+ * database lookup on every request.
+ * In the default mode principals are kept in a bounded, TTL-evicting cache that is
+ * invalidated when users are saved or deleted. In stateless mode the principal is
+ * built from the token subject alone.
+ * Loads are fenced by an invalidation counter: a principal loaded while an invalidation ran
+ * may predate the change, so it is dropped again instead of staying cached until the TTL.
+ */
+@Component
+public class PrincipalCache {
+    
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    
+    @Value("${security.principal-cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+    
+    @Value("${security.principal-cache.stateless:false}")
+    private boolean stateless;
+    
+    private Cache<String, UserDetails> principals;
+    
+    /** Incremented by every invalidation, before the entries are dropped */
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    @PostConstruct
+    public void init() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+    
+    /**
+     * Get the principal for a verified token subject.
+     *
+     * @param email the token subject (user email)
+     * @return UserDetails without credentials
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException if the user no longer exists
+     */
+    public UserDetails getPrincipal(String email) {
+        if (stateless) {
+            // Authorities depend only on the email, so the token is sufficient
+            return User.withUsername(email)
+                    .password("")
+                    .authorities(userDetailsService.authoritiesFor(email))
+                    .build();
+        }
+        
+        // Load outside the cache: a computing get would hold a map lock across the user lookup
+        // and pin a virtual thread to its carrier; a rare duplicate load is harmless
+        UserDetails principal = principals.getIfPresent(email);
+        if (principal == null) {
+            long fence = invalidations.get();
+            principal = loadPrincipal(email);
+            principals.put(email, principal);
+            // An invalidation since the load started may have missed the new entry
+            if (invalidations.get() != fence) {
+                principals.invalidate(email);
+            }
+        }
+        return principal;
+    }
+    
+    /**
+     * Drop a cached principal, e.g. after the user was updated.
+     *
+     * @param email the user email
+     */
+    public void invalidate(String email) {
+        invalidations.incrementAndGet();
+        principals.invalidate(email);
+    }
+    
+    /**
+     * Drop all cached principals.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        principals.invalidateAll();
+    }
+    
+    private UserDetails loadPrincipal(String email) {
+        // Credentials are not needed once the token is verified; don't keep hashes in memory
+        return User.withUserDetails(userDetailsService.loadUserByUsername(email))
+                .password("")
+                .build();
+    }
+}
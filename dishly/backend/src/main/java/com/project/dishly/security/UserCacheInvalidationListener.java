@@ -0,0 +1,40 @@
+package com.project.dishly.security;
+
+import com.project.dishly.model.User;
+import com.project.dishly.service.LocalStateResyncEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the principal cache consistent with user writes made through repositories.
+ * Writes made by other nodes arrive through ChangeStreamListener.
+ */
+@Component
+public class UserCacheInvalidationListener extends AbstractMongoEventListener<User> {
+    
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        principalCache.invalidate(event.getSource().getEmail());
+    }
+    
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        // Delete events only carry the query, not the user's email
+        principalCache.invalidateAll();
+    }
+    
+    /**
+     * Drop all principals when this node may have missed user changes.
+     */
+    @EventListener(LocalStateResyncEvent.class)
+    public void onResync() {
+        principalCache.invalidateAll();
+    }
+}
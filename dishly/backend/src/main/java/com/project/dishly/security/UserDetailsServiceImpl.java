@@ -3,11 +3,17 @@ package com.project.dishly.security;
 import com.project.dishly.model.User;
 import com.project.dishly.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Locale;
+
 /**
  * Custom UserDetailsService implementation.
  * Loads user details from database by email for Spring Security authentication.
@@ -18,6 +24,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
     
+    /** Users allowed to read operational endpoints (/actuator/**) */
+    @Value("${security.admin-emails:}")
+    private List<String> adminEmails;
+    
     /**
      * Load user by email (used as username in this application).
      *
@@ -33,11 +43,27 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getEmail())
                 .password(user.getPasswordHash())
-                .authorities(new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_USER"))
+                .authorities(authoritiesFor(user.getEmail()))
                 .accountExpired(false)
                 .accountLocked(false)
                 .credentialsExpired(false)
                 .disabled(false)
                 .build();
     }
+    
+    /**
+     * Get the authorities of a user: ROLE_USER, plus ROLE_ADMIN for configured admin emails.
+     *
+     * @param email the user email
+     * @return granted authorities
+     */
+    public List<GrantedAuthority> authoritiesFor(String email) {
+        boolean admin = email != null && adminEmails.stream()
+                .map(String::trim)
+                .anyMatch(email::equalsIgnoreCase);
+        if (admin) {
+            return List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+        }
+        return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    }
 }
@@ -0,0 +1,394 @@
+package com.project.dishly.service;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.project.dishly.model.Recipe;
+import com.project.dishly.model.User;
+import com.project.dishly.security.PrincipalCache;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps this node's in-process caches and indexes current with writes made by other backend
+ * instances, by following a MongoDB change stream on the recipes and users collections.
+ *
+ * Recipe changes are republished as RecipeChangedEvent (with the document as stored) and
+ * applied to the trending leaderboard; user changes invalidate the principal cache. Every
+ * listener applies state rather than deltas, so this node's own writes coming back through
+ * the stream are harmless.
+ *
+ * The resume token is saved in the change_stream_tokens collection, so the stream picks up
+ * where it left off after an error or restart. When the token has fallen out of the oplog
+ * window the node opens a fresh stream first and only then publishes LocalStateResyncEvent,
+ * which drops caches and rebuilds indexes: writes made during the rebuild are still delivered
+ * by the new stream, so none fall into a gap. Tokens of instances that stopped for good expire
+ * through a TTL index.
+ *
+ * Change streams need a replica set (a single-node one is enough for local development), so
+ * this is off unless mongo.change-streams.enabled is set.
+ */
+@Component
+public class ChangeStreamListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamListener.class);
+    
+    private static final String TOKEN_COLLECTION = "change_stream_tokens";
+    
+    // ChangeStreamHistoryLost, InvalidResumeToken, ChangeStreamFatalError
+    private static final Set<Integer> RESUME_FAILURE_CODES = Set.of(286, 260, 280);
+    
+    // $changeStream is only supported on replica sets
+    private static final int NOT_A_REPLICA_SET = 40573;
+    
+    private static final Set<String> COUNTER_FIELDS = Set.of(
+            "likeCount", "ratingCount", "ratingSum", "averageRating", "updatedAt");
+    
+    private static final Set<String> VISIBILITY_FIELDS = Set.of("isPublic", "updatedAt");
+    
+    private static final long MAX_BACKOFF_MS = 30_000;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private TrendingLeaderboard trendingLeaderboard;
+    
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Value("${mongo.change-streams.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${mongo.change-streams.instance-id:${HOSTNAME:local}}")
+    private String instanceId;
+    
+    @Value("${mongo.change-streams.token-save-interval-ms:1000}")
+    private long tokenSaveIntervalMs;
+    
+    @Value("${mongo.change-streams.token-ttl-hours:24}")
+    private long tokenTtlHours;
+    
+    private String recipeCollection;
+    
+    private String userCollection;
+    
+    private volatile boolean running = false;
+    
+    private Thread worker;
+    
+    /** Resync to run once the next stream is open; only touched by the worker thread */
+    private String pendingResync;
+    
+    /**
+     * Start following the change stream once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        recipeCollection = mongoTemplate.getCollectionName(Recipe.class);
+        userCollection = mongoTemplate.getCollectionName(User.class);
+        
+        running = true;
+        worker = new Thread(this::follow, "change-stream");
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    /**
+     * Stop the stream; the last resume token is saved on the way out.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+    
+    /**
+     * Follow the stream until stopped, reopening it after errors.
+     */
+    private void follow() {
+        expireStaleTokens();
+        BsonDocument resumeToken = loadResumeToken();
+        long backoffMs = 1000;
+        
+        while (running) {
+            try {
+                resumeToken = stream(resumeToken);
+                backoffMs = 1000;
+            } catch (MongoException ex) {
+                if (!running) {
+                    break;
+                }
+                if (ex.getCode() == NOT_A_REPLICA_SET) {
+                    log.error("Change streams need a replica set; cross-node cache invalidation is disabled", ex);
+                    return;
+                }
+                if (RESUME_FAILURE_CODES.contains(ex.getCode())) {
+                    log.warn("Cannot resume the change stream (code {}), resynchronizing local state", ex.getCode());
+                    resumeToken = null;
+                    saveResumeToken(null);
+                    pendingResync = "change stream history lost";
+                    continue;
+                }
+                log.warn("Change stream failed, reopening in {} ms", backoffMs, ex);
+                if (!sleep(backoffMs)) {
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            } catch (RuntimeException ex) {
+                log.error("Change stream stopped unexpectedly, reopening in {} ms", backoffMs, ex);
+                if (!sleep(backoffMs)) {
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+    
+    /**
+     * Open the stream and apply events until stopped or the stream is invalidated.
+     * A pending resync runs right after the stream is open, so every write made from then on,
+     * including during the rebuild, is delivered by this stream.
+     *
+     * @param resumeToken token to resume after, or null to start from now
+     * @return the token to resume from next
+     */
+    private BsonDocument stream(BsonDocument resumeToken) {
+        ChangeStreamIterable<Document> changes = mongoTemplate.getDb()
+                .watch(List.of(Aggregates.match(Filters.in("ns.coll", recipeCollection, userCollection))))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            changes = changes.resumeAfter(resumeToken);
+        }
+        
+        BsonDocument savedToken = resumeToken;
+        long savedAt = System.currentTimeMillis();
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changes.cursor()) {
+            log.info("Following change stream on {} and {}", recipeCollection, userCollection);
+            if (pendingResync != null) {
+                resync(pendingResync);
+                pendingResync = null;
+            }
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null && !applySafely(change)) {
+                    // Collection dropped or renamed: the stream is closed; resync once a new one is open
+                    pendingResync = "change stream invalidated by " + change.getOperationType().getValue();
+                    saveResumeToken(null);
+                    return null;
+                }
+                
+                // The cursor's token also advances while idle, keeping it inside the oplog window
+                BsonDocument token = cursor.getResumeToken();
+                if (token != null && !token.equals(savedToken)
+                        && System.currentTimeMillis() - savedAt >= tokenSaveIntervalMs) {
+                    saveResumeToken(token);
+                    savedToken = token;
+                    savedAt = System.currentTimeMillis();
+                }
+                resumeToken = token != null ? token : resumeToken;
+            }
+        }
+        if (resumeToken != null && !resumeToken.equals(savedToken)) {
+            saveResumeToken(resumeToken);
+        }
+        return resumeToken;
+    }
+    
+    /**
+     * Apply one change; a change that cannot be applied resynchronizes instead, so one bad
+     * event neither stops the stream nor is replayed forever.
+     *
+     * @param change the change event
+     * @return false if the stream was invalidated and must be restarted
+     */
+    private boolean applySafely(ChangeStreamDocument<Document> change) {
+        try {
+            return apply(change);
+        } catch (RuntimeException ex) {
+            log.error("Could not apply change stream event, resynchronizing local state", ex);
+            resync("change stream event failed");
+            return true;
+        }
+    }
+    
+    /**
+     * Apply one change.
+     *
+     * @param change the change event
+     * @return false if the stream was invalidated and must be restarted
+     */
+    private boolean apply(ChangeStreamDocument<Document> change) {
+        OperationType operation = change.getOperationType();
+        if (operation == OperationType.INVALIDATE || operation == OperationType.DROP
+                || operation == OperationType.RENAME || operation == OperationType.DROP_DATABASE) {
+            return false;
+        }
+        if (change.getNamespace() == null || change.getDocumentKey() == null) {
+            return true;
+        }
+        
+        String collection = change.getNamespace().getCollectionName();
+        if (recipeCollection.equals(collection)) {
+            applyRecipeChange(change, operation);
+        } else if (userCollection.equals(collection)) {
+            applyUserChange(change, operation);
+        }
+        return true;
+    }
+    
+    private void applyRecipeChange(ChangeStreamDocument<Document> change, OperationType operation) {
+        String recipeId = idOf(change.getDocumentKey().get("_id"));
+        Document document = change.getFullDocument();
+        
+        // An update looked up after a later delete has no document
+        if (operation == OperationType.DELETE || document == null) {
+            trendingLeaderboard.remove(recipeId);
+            eventPublisher.publishEvent(new RecipeChangedEvent(recipeId, RecipeChangedEvent.ChangeType.DELETED, null));
+            return;
+        }
+        
+        Recipe recipe = mongoTemplate.getConverter().read(Recipe.class, document);
+        trendingLeaderboard.update(recipeId,
+                recipe.getLikeCount() != null ? recipe.getLikeCount() : 0,
+                Boolean.TRUE.equals(recipe.getIsPublic()));
+        eventPublisher.publishEvent(new RecipeChangedEvent(recipeId, changeType(change, operation), recipe));
+    }
+    
+    private static RecipeChangedEvent.ChangeType changeType(ChangeStreamDocument<Document> change, OperationType operation) {
+        if (operation == OperationType.INSERT) {
+            return RecipeChangedEvent.ChangeType.CREATED;
+        }
+        if (operation != OperationType.UPDATE || change.getUpdateDescription() == null) {
+            return RecipeChangedEvent.ChangeType.UPDATED;
+        }
+        
+        Set<String> fields = change.getUpdateDescription().getUpdatedFields() != null
+                ? change.getUpdateDescription().getUpdatedFields().keySet()
+                : Set.of();
+        List<String> removed = change.getUpdateDescription().getRemovedFields();
+        if (removed == null || removed.isEmpty()) {
+            if (COUNTER_FIELDS.containsAll(fields)) {
+                return RecipeChangedEvent.ChangeType.COUNTERS;
+            }
+            if (VISIBILITY_FIELDS.containsAll(fields)) {
+                return RecipeChangedEvent.ChangeType.VISIBILITY;
+            }
+        }
+        return RecipeChangedEvent.ChangeType.UPDATED;
+    }
+    
+    private void applyUserChange(ChangeStreamDocument<Document> change, OperationType operation) {
+        Document document = change.getFullDocument();
+        String email = document != null ? document.getString("email") : null;
+        if (operation == OperationType.DELETE || email == null) {
+            // Delete events only carry the user's ID, not the email
+            principalCache.invalidateAll();
+        } else {
+            principalCache.invalidate(email);
+        }
+    }
+    
+    private void resync(String reason) {
+        log.info("Resynchronizing local caches and indexes: {}", reason);
+        eventPublisher.publishEvent(new LocalStateResyncEvent(reason));
+    }
+    
+    /**
+     * Let MongoDB delete the tokens of instances that have not saved one for the TTL, e.g.
+     * hosts that were replaced; a token that old is usually outside the oplog window anyway.
+     */
+    private void expireStaleTokens() {
+        try {
+            tokens().createIndex(Indexes.ascending("updatedAt"),
+                    new IndexOptions().name("updated_at_ttl").expireAfter(tokenTtlHours, TimeUnit.HOURS));
+        } catch (MongoException ex) {
+            log.warn("Could not create the TTL index on {}", TOKEN_COLLECTION, ex);
+        }
+    }
+    
+    private BsonDocument loadResumeToken() {
+        try {
+            Document saved = tokens().find(Filters.eq("_id", instanceId)).first();
+            Document token = saved != null ? saved.get("token", Document.class) : null;
+            return token != null
+                    ? token.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry())
+                    : null;
+        } catch (MongoException ex) {
+            log.warn("Could not load the change stream resume token, starting from now", ex);
+            return null;
+        }
+    }
+    
+    private void saveResumeToken(BsonDocument token) {
+        try {
+            if (token == null) {
+                tokens().deleteOne(Filters.eq("_id", instanceId));
+                return;
+            }
+            tokens().replaceOne(Filters.eq("_id", instanceId),
+                    new Document("_id", instanceId).append("token", token).append("updatedAt", new Date()),
+                    new ReplaceOptions().upsert(true));
+        } catch (MongoException ex) {
+            // The stream keeps running; a restart may replay a few already-applied events
+            log.warn("Could not save the change stream resume token", ex);
+        }
+    }
+    
+    private MongoCollection<Document> tokens() {
+        return mongoTemplate.getCollection(TOKEN_COLLECTION);
+    }
+    
+    private static String idOf(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString()
+                : id.isString() ? id.asString().getValue() : id.toString();
+    }
+    
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
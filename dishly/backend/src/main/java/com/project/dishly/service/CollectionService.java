@@ -8,12 +8,20 @@ import com.project.dishly.exception.UnauthorizedException;
 import com.project.dishly.model.Recipe;
 import com.project.dishly.model.RecipeCollection;
 import com.project.dishly.repository.RecipeCollectionRepository;
+import com.project.dishly.repository.RecipeCollectionRepositoryCustom;
 import com.project.dishly.repository.RecipeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +37,9 @@ public class CollectionService {
     @Autowired
     private RecipeRepository recipeRepository;
     
+    @Autowired
+    private LikeStatusService likeStatusService;
+    
     /**
      * Create a new collection for the authenticated user.
      *
@@ -53,13 +64,23 @@ public class CollectionService {
      * @return list of CollectionResponse
      */
     public List<CollectionResponse> getUserCollections(String userId) {
-        List<RecipeCollection> collections = collectionRepository.findByUserId(userId);
-        
-        return collections.stream()
+        // Counts are computed in the database; recipe IDs are not loaded
+        return collectionRepository.findSummariesByUserId(userId).stream()
                 .map(this::mapToCollectionResponse)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Get the IDs of the user's collections that contain a recipe.
+     *
+     * @param recipeId the recipe ID
+     * @param userId the authenticated user's ID
+     * @return list of collection IDs
+     */
+    public List<String> getCollectionIdsContainingRecipe(String recipeId, String userId) {
+        return collectionRepository.findIdsByUserIdContainingRecipe(userId, recipeId);
+    }
+    
     /**
      * Add a recipe to a collection.
      * Verifies ownership of both collection and recipe.
@@ -72,18 +93,10 @@ public class CollectionService {
      * @throws UnauthorizedException if user is not the owner
      */
     public CollectionResponse addRecipeToCollection(String collectionId, String recipeId, String userId) {
-        RecipeCollection collection = collectionRepository.findById(collectionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Collection not found"));
-        
-        if (!collection.getUserId().equals(userId)) {
-            throw new UnauthorizedException("You can only modify your own collections");
-        }
-        
-        // Avoid duplicates
-        if (!collection.getRecipeIds().contains(recipeId)) {
-            collection.getRecipeIds().add(recipeId);
-            RecipeCollection updatedCollection = collectionRepository.save(collection);
-            return mapToCollectionResponse(updatedCollection);
+        // $addToSet makes concurrent or repeated adds idempotent
+        RecipeCollectionRepositoryCustom.CollectionSummary collection = collectionRepository.addRecipe(collectionId, userId, recipeId);
+        if (collection == null) {
+            throw ownershipFailure(collectionId, "You can only modify your own collections");
         }
         
         return mapToCollectionResponse(collection);
@@ -101,17 +114,12 @@ public class CollectionService {
      * @throws UnauthorizedException if user is not the owner
      */
     public CollectionResponse removeRecipeFromCollection(String collectionId, String recipeId, String userId) {
-        RecipeCollection collection = collectionRepository.findById(collectionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Collection not found"));
-        
-        if (!collection.getUserId().equals(userId)) {
-            throw new UnauthorizedException("You can only modify your own collections");
+        RecipeCollectionRepositoryCustom.CollectionSummary collection = collectionRepository.removeRecipe(collectionId, userId, recipeId);
+        if (collection == null) {
+            throw ownershipFailure(collectionId, "You can only modify your own collections");
         }
         
-        collection.getRecipeIds().remove(recipeId);
-        RecipeCollection updatedCollection = collectionRepository.save(collection);
-        
-        return mapToCollectionResponse(updatedCollection);
+        return mapToCollectionResponse(collection);
     }
     
     /**
@@ -135,42 +143,70 @@ public class CollectionService {
     }
     
     /**
-     * Get all recipes in a collection.
+     * Get a page of the recipes in a collection, in the order they were added.
+     * Only the page's recipe IDs are read from the collection, and recipes are fetched as cards.
      * Verifies ownership of collection.
      *
      * @param collectionId the collection ID
+     * @param pageable pagination information
      * @param userId the authenticated user's ID
-     * @return list of RecipeListResponse
+     * @return page of RecipeListResponse
      * @throws ResourceNotFoundException if collection not found
      * @throws UnauthorizedException if user is not the owner
      */
-    public List<RecipeListResponse> getCollectionRecipes(String collectionId, String userId) {
-        RecipeCollection collection = collectionRepository.findById(collectionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Collection not found"));
+    public Page<RecipeListResponse> getCollectionRecipes(String collectionId, Pageable pageable, String userId) {
+        RecipeCollectionRepositoryCustom.RecipeIdSlice collection = collectionRepository.findRecipeIdSlice(
+                collectionId, (int) pageable.getOffset(), pageable.getPageSize());
+        if (collection == null) {
+            throw new ResourceNotFoundException("Collection not found");
+        }
         
-        if (!collection.getUserId().equals(userId)) {
+        if (!collection.userId().equals(userId)) {
             throw new UnauthorizedException("You can only view your own collections");
         }
         
-        if (collection.getRecipeIds() == null || collection.getRecipeIds().isEmpty()) {
-            return new ArrayList<>();
+        List<String> recipeIds = collection.recipeIds();
+        if (recipeIds == null || recipeIds.isEmpty()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, collection.recipeCount());
         }
         
-        // Fetch recipes by their IDs
-        List<Recipe> recipes = recipeRepository.findByIdIn(collection.getRecipeIds());
+        // $in returns documents in index order; restore the collection's order
+        Map<String, Recipe> recipesById = recipeRepository.findByIdIn(recipeIds).stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()));
         
-        return recipes.stream()
-                .map(this::mapToRecipeListResponse)
+        // Resolve like status for the page in one query
+        Set<String> likedRecipeIds = likeStatusService.resolveLikedRecipeIds(recipeIds, userId);
+        
+        List<RecipeListResponse> content = recipeIds.stream()
+                .map(recipesById::get)
+                .filter(Objects::nonNull)
+                .map(recipe -> mapToRecipeListResponse(recipe, likedRecipeIds.contains(recipe.getId())))
                 .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, collection.recipeCount());
+    }
+    
+    /**
+     * Work out why an owner-scoped collection update matched nothing.
+     *
+     * @param collectionId the collection ID
+     * @param message message for the ownership failure
+     * @return ResourceNotFoundException if the collection does not exist, otherwise UnauthorizedException
+     */
+    private RuntimeException ownershipFailure(String collectionId, String message) {
+        if (!collectionRepository.existsById(collectionId)) {
+            return new ResourceNotFoundException("Collection not found");
+        }
+        return new UnauthorizedException(message);
     }
     
     /**
      * Map Recipe entity to RecipeListResponse DTO.
      *
      * @param recipe the Recipe entity
+     * @param isLiked whether the viewer has liked the recipe
      * @return RecipeListResponse DTO
      */
-    private RecipeListResponse mapToRecipeListResponse(Recipe recipe) {
+    private RecipeListResponse mapToRecipeListResponse(Recipe recipe, boolean isLiked) {
         return new RecipeListResponse(
                 recipe.getId(),
                 recipe.getTitle(),
@@ -180,7 +216,7 @@ public class CollectionService {
                 recipe.getAverageRating(),
                 recipe.getRatingCount(),
                 recipe.getLikeCount() != null ? recipe.getLikeCount() : 0,
-                false,
+                isLiked,
                 recipe.getCategories(),
                 recipe.getDifficulty().toString(),
                 recipe.getServings(),
@@ -199,8 +235,22 @@ public class CollectionService {
                 collection.getId(),
                 collection.getName(),
                 collection.getRecipeIds() != null ? collection.getRecipeIds().size() : 0,
-                collection.getRecipeIds(),
                 collection.getCreatedAt()
         );
     }
+    
+    /**
+     * Map a projected collection summary to CollectionResponse DTO.
+     *
+     * @param collection the collection summary
+     * @return CollectionResponse DTO
+     */
+    private CollectionResponse mapToCollectionResponse(RecipeCollectionRepositoryCustom.CollectionSummary collection) {
+        return new CollectionResponse(
+                collection.id(),
+                collection.name(),
+                collection.recipeCount(),
+                collection.createdAt()
+        );
+    }
 }
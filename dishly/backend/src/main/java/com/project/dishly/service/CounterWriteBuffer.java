@@ -0,0 +1,296 @@
+package com.project.dishly.service;
+
+import com.project.dishly.model.Recipe;
+import com.project.dishly.repository.RecipeRepository;
+import com.project.dishly.repository.RecipeRepositoryCustom.CounterDelta;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional write-behind buffer for recipe like and rating counters.
+ * When enabled, like/rating deltas accumulate per recipe in striped adders and are
+ * flushed periodically as one unordered bulk write, instead of one update per request.
+ * Counters on the recipe document may lag by up to one flush interval.
+ */
+@Component
+public class CounterWriteBuffer {
+    
+    private static final Logger log = LoggerFactory.getLogger(CounterWriteBuffer.class);
+    
+    @Autowired
+    private RecipeRepository recipeRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${counters.write-behind.enabled:false}")
+    private boolean enabled;
+    
+    private final Map<String, PendingDelta> pending = new ConcurrentHashMap<>();
+    
+    // A lock rather than synchronized, so a virtual thread waiting on the bulk write can unmount
+    private final ReentrantLock flushLock = new ReentrantLock();
+    
+    private Counter flushedCounter;
+    
+    private Counter failedCounter;
+    
+    private Counter droppedCounter;
+    
+    /**
+     * Register pending-delta gauges and flush counters.
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("dishly.counters.pending.recipes", pending, Map::size)
+                .description("Recipes with unflushed counter deltas")
+                .register(meterRegistry);
+        Gauge.builder("dishly.counters.pending.likes", this, CounterWriteBuffer::pendingLikeDeltas)
+                .description("Absolute like-count delta waiting to be flushed")
+                .register(meterRegistry);
+        flushedCounter = Counter.builder("dishly.counters.flushed")
+                .description("Recipe counter updates written by write-behind flushes")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("dishly.counters.flush.failures")
+                .description("Recipe counter updates that failed and were re-queued")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("dishly.counters.flush.dropped")
+                .description("Recipe counter updates dropped because a flush ended with an unknown outcome")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Whether write-behind mode is enabled.
+     *
+     * @return true if counter deltas should be buffered instead of written immediately
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Buffer a like-count change.
+     *
+     * @param recipeId the recipe ID
+     * @param delta amount to add (negative to decrement)
+     */
+    public void addLikes(String recipeId, long delta) {
+        add(recipeId, delta, 0.0, 0);
+    }
+    
+    /**
+     * Buffer a rating-total change.
+     *
+     * @param recipeId the recipe ID
+     * @param sumDelta amount to add to the rating sum
+     * @param countDelta amount to add to the rating count
+     */
+    public void addRating(String recipeId, double sumDelta, long countDelta) {
+        add(recipeId, 0, sumDelta, countDelta);
+    }
+    
+    /**
+     * Check whether a recipe has counter deltas waiting to be flushed.
+     *
+     * @param recipeId the recipe ID
+     * @return true if a flush would still change the recipe's counters
+     */
+    public boolean hasPending(String recipeId) {
+        // Flushed entries stay in the map, drained to zero, until an idle flush retires them
+        PendingDelta delta = pending.get(recipeId);
+        return delta != null && !delta.isEmpty();
+    }
+    
+    /**
+     * Apply unflushed deltas to a recipe loaded from the database, so responses reflect
+     * the caller's own write. Mutates and returns the given instance.
+     *
+     * @param recipe the recipe as stored
+     * @return the same recipe with pending deltas applied
+     */
+    public Recipe overlay(Recipe recipe) {
+        PendingDelta delta = pending.get(recipe.getId());
+        if (delta == null) {
+            return recipe;
+        }
+        
+        long likes = delta.likes.sum();
+        double ratingSum = delta.ratingSum.sum();
+        long ratingCount = delta.ratingCount.sum();
+        
+        int storedLikes = recipe.getLikeCount() != null ? recipe.getLikeCount() : 0;
+        recipe.setLikeCount((int) Math.max(0, storedLikes + likes));
+        
+        if (ratingSum != 0.0 || ratingCount != 0) {
+            int storedCount = recipe.getRatingCount() != null ? recipe.getRatingCount() : 0;
+            double storedSum = recipe.getRatingSum() != null
+                    ? recipe.getRatingSum()
+                    : (recipe.getAverageRating() != null ? recipe.getAverageRating() : 0.0) * storedCount;
+            int newCount = (int) (storedCount + ratingCount);
+            double newSum = storedSum + ratingSum;
+            recipe.setRatingCount(newCount);
+            recipe.setRatingSum(newSum);
+            recipe.setAverageRating(newCount > 0 ? newSum / newCount : 0.0);
+        }
+        
+        return recipe;
+    }
+    
+    /**
+     * Flush buffered deltas on the configured interval.
+     */
+    @Scheduled(fixedDelayString = "${counters.write-behind.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        try {
+            flush();
+        } catch (Exception ex) {
+            log.error("Counter write-behind flush failed", ex);
+        }
+    }
+    
+    /**
+     * Flush remaining deltas before the application shuts down.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (!pending.isEmpty()) {
+            flush();
+        }
+    }
+    
+    /**
+     * Drain all buffered deltas and write them as a single bulk write.
+     * Deltas the server reports as failed are re-queued for the next flush. When the outcome
+     * is unknown (e.g. a timeout after the server may have applied the write) the deltas are
+     * dropped and counted rather than retried, since applying them twice would never be undone.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<CounterDelta> deltas = new ArrayList<>();
+            
+            for (Map.Entry<String, PendingDelta> entry : pending.entrySet()) {
+                String recipeId = entry.getKey();
+                PendingDelta delta = entry.getValue();
+                CounterDelta drained = delta.drain(recipeId);
+                
+                if (drained != null) {
+                    deltas.add(drained);
+                } else if (pending.remove(recipeId, delta)) {
+                    // Idle entry: retire it, then move anything that raced in to a fresh entry
+                    delta.retired = true;
+                    requeue(delta.drain(recipeId));
+                }
+            }
+            
+            if (deltas.isEmpty()) {
+                return;
+            }
+            
+            List<CounterDelta> failed;
+            try {
+                failed = recipeRepository.applyCounterDeltas(deltas);
+            } catch (DataAccessException ex) {
+                droppedCounter.increment(deltas.size());
+                log.error("Dropped {} counter update(s) after a flush with an unknown outcome", deltas.size(), ex);
+                return;
+            }
+            flushedCounter.increment(deltas.size() - failed.size());
+            if (!failed.isEmpty()) {
+                failedCounter.increment(failed.size());
+                failed.forEach(this::requeue);
+                log.warn("Re-queued {} counter update(s) after a failed flush", failed.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    private void add(String recipeId, long likes, double ratingSum, long ratingCount) {
+        PendingDelta delta = pending.computeIfAbsent(recipeId, id -> new PendingDelta());
+        delta.add(likes, ratingSum, ratingCount);
+        
+        // Lost a race with the flusher retiring this entry: move the residue to a live entry
+        if (delta.retired) {
+            requeue(delta.drain(recipeId));
+        }
+    }
+    
+    private void requeue(CounterDelta delta) {
+        if (delta != null) {
+            add(delta.recipeId(), delta.likeDelta(), delta.ratingSumDelta(), delta.ratingCountDelta());
+        }
+    }
+    
+    private double pendingLikeDeltas() {
+        return pending.values().stream().mapToLong(delta -> Math.abs(delta.likes.sum())).sum();
+    }
+    
+    /**
+     * Striped accumulators for one recipe.
+     */
+    private static class PendingDelta {
+        
+        private final LongAdder likes = new LongAdder();
+        
+        private final DoubleAdder ratingSum = new DoubleAdder();
+        
+        private final LongAdder ratingCount = new LongAdder();
+        
+        private volatile boolean retired = false;
+        
+        void add(long likeDelta, double ratingSumDelta, long ratingCountDelta) {
+            if (likeDelta != 0) {
+                likes.add(likeDelta);
+            }
+            if (ratingSumDelta != 0.0) {
+                ratingSum.add(ratingSumDelta);
+            }
+            if (ratingCountDelta != 0) {
+                ratingCount.add(ratingCountDelta);
+            }
+        }
+        
+        boolean isEmpty() {
+            return likes.sum() == 0 && ratingSum.sum() == 0.0 && ratingCount.sum() == 0;
+        }
+        
+        /**
+         * Atomically take the accumulated deltas, leaving zero behind.
+         *
+         * @return drained deltas, or null if there was nothing to flush
+         */
+        CounterDelta drain(String recipeId) {
+            long likeDelta = likes.sumThenReset();
+            double ratingSumDelta = ratingSum.sumThenReset();
+            long ratingCountDelta = ratingCount.sumThenReset();
+            
+            if (likeDelta == 0 && ratingSumDelta == 0.0 && ratingCountDelta == 0) {
+                return null;
+            }
+            return new CounterDelta(recipeId, likeDelta, ratingSumDelta, ratingCountDelta);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.project.dishly.service;
+
+import com.project.dishly.model.Ingredient;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Canonical ingredient dictionary.
+ * Maps free-text ingredient names to canonical names and interned integer IDs, folding case,
+ * punctuation, plurals ("Tomatoes" -> "tomato") and configured synonyms ("scallion" ->
+ * "green onion"), so aggregation and matching compare ints instead of strings.
+ *
+ * IDs are assigned in process and are not stable across restarts; persist the canonical
+ * name (Ingredient.canonicalName) and resolve it to an ID at runtime.
+ *
+ * Lookups go through an open-addressing table over primitive arrays. Every spelling seen is
+ * kept as an alias of its ID, so repeated names resolve without re-normalizing.
+ */
+@Component
+public class IngredientDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(IngredientDictionary.class);
+
+    /** Returned by find() for names that have never been resolved */
+    public static final int UNKNOWN = -1;
+
+    private static final Map<String, String> IRREGULAR_PLURALS = Map.of(
+            "leaves", "leaf",
+            "halves", "half",
+            "loaves", "loaf",
+            "knives", "knife",
+            "teeth", "tooth",
+            "geese", "goose");
+
+    /** Singulars ending in "ie", whose "-ies" plurals do not become "-y" */
+    private static final Set<String> IE_SINGULARS = Set.of(
+            "cookie", "brownie", "veggie", "smoothie", "calorie", "pierogie", "hoagie", "goodie", "pie");
+
+    private static final Set<String> INVARIANT_WORDS = Set.of(
+            "molasses", "species", "series", "swiss", "brussels", "grits", "hummus", "couscous", "asparagus");
+
+    @Value("${ingredients.synonyms-resource:ingredient-synonyms.txt}")
+    private String synonymsResource;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** alias or canonical spelling -> ID */
+    private final NameTable aliases = new NameTable();
+
+    /** normalized synonym -> ID of its canonical name */
+    private final NameTable synonyms = new NameTable();
+
+    /** ID -> canonical name */
+    private final List<String> canonicalNames = new ArrayList<>();
+
+    /**
+     * Load the synonym table from the classpath.
+     */
+    @PostConstruct
+    public void loadSynonyms() {
+        ClassPathResource resource = new ClassPathResource(synonymsResource);
+        if (!resource.exists()) {
+            log.warn("Ingredient synonyms resource {} not found, continuing without synonyms", synonymsResource);
+            return;
+        }
+        int count = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                int separator = line.indexOf('=');
+                if (line.isEmpty() || line.startsWith("#") || separator < 0) {
+                    continue;
+                }
+                int id = intern(normalize(line.substring(0, separator)));
+                for (String synonym : line.substring(separator + 1).split(",")) {
+                    String key = normalize(synonym);
+                    if (!key.isEmpty()) {
+                        synonyms.put(key, id);
+                        count++;
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not read ingredient synonyms from " + synonymsResource, ex);
+        }
+        log.info("Loaded {} ingredient synonyms for {} canonical names", count, canonicalNames.size());
+    }
+
+    /**
+     * Resolve a free-text ingredient name to its ID, adding it to the dictionary if new.
+     *
+     * @param name the ingredient name as written in a recipe
+     * @return the ingredient ID, or UNKNOWN if the name has no letters or digits
+     */
+    public int resolve(String name) {
+        if (name == null) {
+            return UNKNOWN;
+        }
+        String alias = name.trim().toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            int id = aliases.get(alias);
+            if (id != UNKNOWN) {
+                return id;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        String canonical = normalize(name);
+        if (canonical.isEmpty()) {
+            return UNKNOWN;
+        }
+        lock.writeLock().lock();
+        try {
+            int id = synonyms.get(canonical);
+            if (id == UNKNOWN) {
+                id = intern(canonical);
+            }
+            aliases.put(alias, id);
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resolve a recipe ingredient to its ID, preferring its stored canonical name.
+     * Falls back to the free-text name for ingredients saved before canonical names were stored.
+     *
+     * @param ingredient the recipe ingredient
+     * @return the ingredient ID, or UNKNOWN if the name has no letters or digits
+     */
+    public int resolve(Ingredient ingredient) {
+        String canonical = ingredient.getCanonicalName();
+        return resolve(canonical != null ? canonical : ingredient.getName());
+    }
+
+    /**
+     * Look up the ID of an ingredient name without adding it to the dictionary.
+     * Use for user queries, which should not grow the dictionary.
+     *
+     * @param name the ingredient name
+     * @return the ingredient ID, or UNKNOWN if no recipe uses it
+     */
+    public int find(String name) {
+        if (name == null) {
+            return UNKNOWN;
+        }
+        lock.readLock().lock();
+        try {
+            int id = aliases.get(name.trim().toLowerCase(Locale.ROOT));
+            if (id != UNKNOWN) {
+                return id;
+            }
+            String canonical = normalize(name);
+            id = synonyms.get(canonical);
+            return id != UNKNOWN ? id : aliases.get(canonical);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the canonical name of a free-text ingredient name, adding it to the dictionary if new.
+     *
+     * @param name the ingredient name as written in a recipe
+     * @return the canonical name, or null if the name has no letters or digits
+     */
+    public String canonicalName(String name) {
+        int id = resolve(name);
+        return id != UNKNOWN ? nameOf(id) : null;
+    }
+
+    /**
+     * Get the canonical name for an ingredient ID.
+     *
+     * @param id the ingredient ID
+     * @return the canonical name
+     */
+    public String nameOf(int id) {
+        lock.readLock().lock();
+        try {
+            return canonicalNames.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of canonical ingredients, an exclusive upper bound for IDs.
+     *
+     * @return dictionary size
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return canonicalNames.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Intern a canonical name; the caller holds the write lock (or is initializing).
+     */
+    private int intern(String canonical) {
+        int id = aliases.get(canonical);
+        if (id == UNKNOWN) {
+            id = canonicalNames.size();
+            canonicalNames.add(canonical);
+            aliases.put(canonical, id);
+        }
+        return id;
+    }
+
+    /**
+     * Lower-case, drop apostrophes, turn other punctuation into spaces and singularize each word.
+     *
+     * @param name free-text name
+     * @return normalized name (empty if nothing is left)
+     */
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String lower = name.toLowerCase(Locale.ROOT).replace("'", "").replace("’", "");
+        StringBuilder normalized = new StringBuilder(lower.length());
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(singularize(lower.substring(start, i)));
+                start = -1;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Reduce an English plural to its singular form; unlike the search stemmer the result is
+     * still a readable word.
+     */
+    static String singularize(String word) {
+        int length = word.length();
+        if (length <= 3 || INVARIANT_WORDS.contains(word)) {
+            return word;
+        }
+        String irregular = IRREGULAR_PLURALS.get(word);
+        if (irregular != null) {
+            return irregular;
+        }
+        if (word.endsWith("ies") && length > 4) {
+            String ie = word.substring(0, length - 1);
+            return IE_SINGULARS.contains(ie) ? ie : word.substring(0, length - 3) + "y";
+        }
+        if (word.endsWith("oes") || word.endsWith("ches") || word.endsWith("shes")
+                || word.endsWith("sses") || word.endsWith("xes") || word.endsWith("zes")) {
+            return word.substring(0, length - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, length - 1);
+        }
+        return word;
+    }
+
+    /**
+     * Open-addressing String -> int table with linear probing.
+     * Keys and values live in parallel arrays, so lookups allocate nothing and values are
+     * never boxed.
+     */
+    private static final class NameTable {
+
+        private String[] keys = new String[1024];
+
+        private int[] values = new int[1024];
+
+        private int size = 0;
+
+        int get(String key) {
+            int mask = keys.length - 1;
+            for (int slot = spread(key.hashCode()) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot].equals(key)) {
+                    return values[slot];
+                }
+            }
+            return UNKNOWN;
+        }
+
+        void put(String key, int value) {
+            // Keep the load factor at or below one half
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = spread(key.hashCode()) & mask;
+            while (keys[slot] != null) {
+                if (keys[slot].equals(key)) {
+                    values[slot] = value;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+        }
+
+        private void resize() {
+            String[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new String[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.project.dishly.service;
+
+import com.project.dishly.model.Like;
+import com.project.dishly.repository.LikeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service for resolving whether a viewer has liked recipes.
+ * Resolves a whole page of recipes with a single query instead of one lookup per recipe.
+ */
+@Service
+public class LikeStatusService {
+    
+    @Autowired
+    private LikeRepository likeRepository;
+    
+    /**
+     * Resolve which of the given recipes the viewer has liked.
+     *
+     * @param recipeIds the recipe IDs on the page
+     * @param userEmail the viewer's email (null for anonymous viewers)
+     * @return set of liked recipe IDs, empty for anonymous viewers
+     */
+    public Set<String> resolveLikedRecipeIds(Collection<String> recipeIds, String userEmail) {
+        if (userEmail == null || recipeIds == null || recipeIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        
+        return likeRepository.findByUserIdAndRecipeIdIn(userEmail, recipeIds)
+                .stream()
+                .map(Like::getRecipeId)
+                .collect(Collectors.toSet());
+    }
+    
+    /**
+     * Check whether the viewer has liked a single recipe.
+     *
+     * @param recipeId the recipe ID
+     * @param userEmail the viewer's email (null for anonymous viewers)
+     * @return true if the viewer liked the recipe
+     */
+    public boolean isLiked(String recipeId, String userEmail) {
+        return userEmail != null && likeRepository.existsByRecipeIdAndUserId(recipeId, userEmail);
+    }
+}
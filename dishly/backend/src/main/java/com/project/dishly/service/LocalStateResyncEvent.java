@@ -0,0 +1,11 @@
+package com.project.dishly.service;
+
+/**
+ * Application event published when this node may have missed recipe or user changes, e.g.
+ * after the change stream fell out of the oplog window.
+ * In-process caches drop their entries and indexes rebuild from MongoDB.
+ *
+ * @param reason why the node is resynchronizing, for logs
+ */
+public record LocalStateResyncEvent(String reason) {
+}
@@ -0,0 +1,254 @@
+package com.project.dishly.service;
+
+import com.project.dishly.dto.response.RecipeListResponse;
+import com.project.dishly.model.Recipe;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of public listing pages (unfiltered and per category), shared by all viewers.
+ *
+ * Pages hold viewer-independent cards (isLiked false); callers overlay like status after a
+ * hit. Each page is tagged with the recipe IDs it contains and belongs to a segment (its
+ * category filter, or the unfiltered feed):
+ * - counter changes evict only the pages containing the recipe, since they do not move it;
+ * - creating a recipe or toggling its visibility evicts every page in the segments matching
+ *   its categories (and the segments it was tagged in), since offset pages shift;
+ * - updates and deletes evict every page: the recipe's previous categories and visibility are
+ *   unknown, so it may have left any segment.
+ *
+ * Pages are tagged just before they are stored, never for a discarded load. Every write other
+ * than a counter change discards the page loads in flight, so it never leaves a stale page
+ * behind. Likes and ratings are too frequent for that; like the detail cache, a page loaded
+ * while one lands may show counts one write behind until its soft TTL refresh. Concurrent
+ * misses for a page share one load, and pages past the soft TTL are served while they refresh.
+ */
+@Component
+public class PublicPageCache {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${recipes.page-cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${recipes.page-cache.max-size:2000}")
+    private long maxSize;
+    
+    @Value("${recipes.page-cache.soft-ttl-seconds:15}")
+    private long softTtlSeconds;
+    
+    @Value("${recipes.page-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+    
+    private SingleFlightCache<PageKey, CachedPage> pages;
+    
+    /** recipe ID -> cached pages containing it */
+    private final Map<String, Set<PageKey>> pagesByRecipe = new ConcurrentHashMap<>();
+    
+    /** segment -> cached pages in it */
+    private final Map<Segment, Set<PageKey>> pagesBySegment = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        pages = new SingleFlightCache<>("public-pages", maxSize, Duration.ofSeconds(softTtlSeconds),
+                Duration.ofSeconds(ttlSeconds), meterRegistry, this::untag, this::tag);
+    }
+    
+    /**
+     * Check whether listing pages are cached.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Get a cached page, loading it on a miss.
+     *
+     * @param key the page key
+     * @param loader loads the page from the database
+     * @return the page
+     */
+    public CachedPage get(PageKey key, Supplier<CachedPage> loader) {
+        return pages.get(key, k -> loader.get());
+    }
+    
+    /**
+     * Evict the pages a recipe change can affect.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        Set<PageKey> tagged = pagesByRecipe.getOrDefault(event.recipeId(), Set.of());
+        if (event.type() == RecipeChangedEvent.ChangeType.COUNTERS) {
+            // Loads in flight are kept; a stale count is corrected by the soft TTL refresh
+            tagged.forEach(pages::invalidate);
+            return;
+        }
+        
+        // Loads in flight are not tagged yet and may have read the recipe before this write
+        pages.discardLoadsInFlight();
+        
+        Recipe recipe = event.recipe();
+        boolean categoriesKnown = recipe != null && (event.type() == RecipeChangedEvent.ChangeType.CREATED
+                || event.type() == RecipeChangedEvent.ChangeType.VISIBILITY);
+        if (!categoriesKnown) {
+            // The recipe may have been public under other categories before this write
+            pages.invalidateAll();
+            return;
+        }
+        if (event.type() == RecipeChangedEvent.ChangeType.CREATED && !Boolean.TRUE.equals(recipe.getIsPublic())) {
+            return;
+        }
+        
+        // The recipe joined or left every segment matching its categories: evict them whole
+        Set<Segment> segments = new HashSet<>();
+        for (PageKey key : tagged) {
+            segments.add(key.segment());
+        }
+        for (Segment segment : pagesBySegment.keySet()) {
+            if (segment.contains(recipe)) {
+                segments.add(segment);
+            }
+        }
+        for (Segment segment : segments) {
+            pagesBySegment.getOrDefault(segment, Set.of()).forEach(pages::invalidate);
+        }
+    }
+    
+    /**
+     * Drop every page when this node may have missed recipe changes.
+     */
+    @EventListener(LocalStateResyncEvent.class)
+    public void onResync() {
+        pages.invalidateAll();
+    }
+    
+    private void tag(PageKey key, CachedPage page) {
+        pagesBySegment.computeIfAbsent(key.segment(), segment -> ConcurrentHashMap.newKeySet()).add(key);
+        for (RecipeListResponse card : page.content()) {
+            pagesByRecipe.computeIfAbsent(card.getId(), id -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+    
+    private void untag(PageKey key, CachedPage page) {
+        // Keep the tags still used by a page cached again (or refreshed) under the same key
+        CachedPage current = pages.peek(key);
+        Set<String> kept = current == null ? Set.of() : current.content().stream()
+                .map(RecipeListResponse::getId)
+                .collect(Collectors.toSet());
+        
+        if (current == null) {
+            removeTag(pagesBySegment, key.segment(), key);
+        }
+        for (RecipeListResponse card : page.content()) {
+            if (!kept.contains(card.getId())) {
+                removeTag(pagesByRecipe, card.getId(), key);
+            }
+        }
+    }
+    
+    private static <T> void removeTag(Map<T, Set<PageKey>> tags, T tag, PageKey key) {
+        tags.computeIfPresent(tag, (t, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+    
+    /**
+     * Identifies a cached listing page.
+     *
+     * @param segment the listing's category filter
+     * @param position "page:N" for offset pages, "cursor:TOKEN" for keyset slices
+     * @param size page size
+     */
+    public record PageKey(Segment segment, String position, int size) {
+        
+        /**
+         * Build a key for a listing filtered by an optional case-insensitive category substring.
+         *
+         * @param category category filter (null or empty for none)
+         * @param position page position
+         * @param size page size
+         * @return the key
+         */
+        public static PageKey of(String category, String position, int size) {
+            String filter = category != null ? category.toLowerCase(Locale.ROOT) : "";
+            return new PageKey(new Segment(filter, false), position, size);
+        }
+        
+        /**
+         * Build a key for a listing filtered by an optional exact category.
+         *
+         * @param category category filter (null or empty for none)
+         * @param position page position
+         * @param size page size
+         * @return the key
+         */
+        public static PageKey exact(String category, String position, int size) {
+            String filter = category != null ? category : "";
+            return new PageKey(new Segment(filter, !filter.isEmpty()), position, size);
+        }
+    }
+    
+    /**
+     * The set of recipes a listing is drawn from.
+     *
+     * @param category lower-cased category substring, or the exact category; "" for the
+     *                 unfiltered feed
+     * @param exact whether the category must match exactly (keyset slices) rather than as a
+     *              case-insensitive substring (offset pages)
+     */
+    public record Segment(String category, boolean exact) {
+        
+        /**
+         * Whether a recipe shows up under this segment.
+         *
+         * @param recipe the recipe
+         * @return true if one of its categories matches the filter
+         */
+        boolean contains(Recipe recipe) {
+            if (category.isEmpty()) {
+                return true;
+            }
+            if (recipe.getCategories() == null) {
+                return false;
+            }
+            for (String recipeCategory : recipe.getCategories()) {
+                if (recipeCategory != null && (exact ? recipeCategory.equals(category)
+                        : recipeCategory.toLowerCase(Locale.ROOT).contains(category))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * A cached listing page.
+     *
+     * @param content viewer-independent cards; shared, so callers copy before changing them
+     * @param totalElements total matching recipes (offset pages only)
+     * @param hasNext whether another slice exists (keyset slices only)
+     * @param nextCursor continuation token (keyset slices only)
+     */
+    public record CachedPage(List<RecipeListResponse> content, long totalElements, boolean hasNext, String nextCursor) {
+    }
+}
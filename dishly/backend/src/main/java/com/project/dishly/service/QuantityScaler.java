@@ -0,0 +1,91 @@
+package com.project.dishly.service;
+
+import com.project.dishly.model.Ingredient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Scales ingredient quantities and rounds them the way a cook would measure them.
+ *
+ * Metric quantities round to sensible precision (whole grams above 10 g, two decimals for
+ * kilograms); spoon, cup, imperial and unknown units ("clove", "pinch") round to the nearest
+ * practical fraction, eighths or thirds, whichever is closer. A positive quantity never
+ * rounds to zero.
+ */
+public final class QuantityScaler {
+
+    private static final Set<String> FINE_METRIC = Set.of("g", "ml", "mg");
+
+    private static final Set<String> COARSE_METRIC = Set.of("kg", "l", "dl");
+
+    private QuantityScaler() {
+    }
+
+    /**
+     * Scale an ingredient list into new Ingredient instances, leaving the given list and its
+     * elements untouched so a cached recipe can back any number of scaled views.
+     *
+     * @param ingredients the stored ingredients (may be null)
+     * @param factor the scale factor
+     * @return scaled copies, or the given list itself when the factor is 1
+     */
+    public static List<Ingredient> scale(List<Ingredient> ingredients, double factor) {
+        if (ingredients == null || factor == 1.0) {
+            return ingredients;
+        }
+        List<Ingredient> scaled = new ArrayList<>(ingredients.size());
+        for (Ingredient ingredient : ingredients) {
+            Double quantity = ingredient.getQuantity();
+            if (quantity != null) {
+                quantity = round(quantity * factor, UnitConverter.parse(ingredient.getUnit()));
+            }
+            scaled.add(new Ingredient(ingredient.getName(), quantity, ingredient.getUnit(),
+                    ingredient.getOrder(), ingredient.getCanonicalName()));
+        }
+        return scaled;
+    }
+
+    /**
+     * Round a quantity for display in the given unit.
+     *
+     * @param quantity the exact quantity
+     * @param unit the unit, or null for a unit with no known conversion
+     * @return the rounded quantity
+     */
+    public static double round(double quantity, UnitConverter.Unit unit) {
+        if (quantity <= 0) {
+            return 0.0;
+        }
+        if (unit != null && FINE_METRIC.contains(unit.symbol())) {
+            return quantity >= 10 ? Math.max(1.0, Math.round(quantity)) : atLeast(Math.round(quantity * 10) / 10.0, 0.1);
+        }
+        if (unit != null && COARSE_METRIC.contains(unit.symbol())) {
+            return atLeast(Math.round(quantity * 100) / 100.0, 0.01);
+        }
+        return roundToFraction(quantity);
+    }
+
+    /**
+     * Round to the nearest multiple of 1/8 or 1/3, whichever is closer (so 0.67 becomes 2/3
+     * rather than 5/8), and to whole numbers from 10 up.
+     */
+    private static double roundToFraction(double quantity) {
+        if (quantity >= 10) {
+            return Math.round(quantity);
+        }
+        double eighths = Math.round(quantity * 8) / 8.0;
+        double thirds = Math.round(quantity * 3) / 3.0;
+        double rounded = Math.abs(thirds - quantity) < Math.abs(eighths - quantity) ? thirds : eighths;
+        if (rounded == 0) {
+            rounded = 1 / 8.0;
+        }
+        // Quantities are displayed as decimals, so two places are enough
+        return Math.round(rounded * 100) / 100.0;
+    }
+
+    private static double atLeast(double rounded, double minimum) {
+        return rounded > 0 ? rounded : minimum;
+    }
+}
@@ -0,0 +1,165 @@
+package com.project.dishly.service;
+
+import com.project.dishly.model.Rating;
+import com.project.dishly.model.Recipe;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Background job that recomputes recipe rating totals from the ratings collection.
+ * Ratings are maintained incrementally on the recipe document; this corrects any drift
+ * (e.g. partial failures between the rating upsert and the recipe update).
+ *
+ * A full aggregation only finds candidates. Each candidate is then re-checked on its own:
+ * the recipe's stored totals are read first, its ratings aggregated second, and the correction
+ * is written only if the stored totals are still the ones read. A rating written meanwhile
+ * changes the stored totals (or is already part of them), so the correction is skipped until
+ * the next run instead of overwriting a concurrent delta.
+ */
+@Service
+public class RatingReconciliationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(RatingReconciliationService.class);
+    
+    private static final double SUM_TOLERANCE = 1e-6;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private CounterWriteBuffer counterWriteBuffer;
+    
+    @Value("${ratings.reconciliation.enabled:true}")
+    private boolean enabled;
+    
+    /**
+     * Run reconciliation on the configured schedule.
+     */
+    @Scheduled(initialDelayString = "${ratings.reconciliation.interval-ms:3600000}",
+            fixedDelayString = "${ratings.reconciliation.interval-ms:3600000}")
+    public void scheduledReconcile() {
+        if (!enabled) {
+            return;
+        }
+        
+        try {
+            int corrected = reconcile();
+            if (corrected > 0) {
+                log.info("Rating reconciliation corrected {} recipe(s)", corrected);
+            }
+        } catch (Exception ex) {
+            log.error("Rating reconciliation failed", ex);
+        }
+    }
+    
+    /**
+     * Recompute rating sum, count and average for every recipe and fix the ones that drifted.
+     *
+     * @return number of recipes corrected
+     */
+    public int reconcile() {
+        // Buffered deltas would otherwise be applied on top of the recomputed totals
+        counterWriteBuffer.flush();
+        
+        Map<String, Totals> totalsByRecipe = new HashMap<>();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("recipeId").sum("rating").as("sum").count().as("count"));
+        try (Stream<Document> totals = mongoTemplate.aggregateStream(aggregation, Rating.class, Document.class)) {
+            totals.forEach(total -> totalsByRecipe.put(total.getString("_id"), Totals.of(total)));
+        }
+        
+        int corrected = 0;
+        Query storedTotals = new Query();
+        storedTotals.fields().include("_id").include("ratingSum").include("ratingCount");
+        try (Stream<Recipe> recipes = mongoTemplate.stream(storedTotals, Recipe.class)) {
+            for (Recipe recipe : (Iterable<Recipe>) recipes::iterator) {
+                Totals expected = totalsByRecipe.getOrDefault(recipe.getId(), Totals.NONE);
+                if (!expected.matches(recipe) && correct(recipe.getId())) {
+                    corrected++;
+                }
+            }
+        }
+        return corrected;
+    }
+    
+    /**
+     * Re-check one recipe and write its recomputed totals if they still differ.
+     *
+     * @param recipeId the recipe ID
+     * @return true if the recipe was corrected
+     */
+    private boolean correct(String recipeId) {
+        // Deltas waiting in the write-behind buffer are not drift; the flush will apply them
+        if (counterWriteBuffer.hasPending(recipeId)) {
+            return false;
+        }
+        
+        Query byId = Query.query(Criteria.where("_id").is(recipeId));
+        byId.fields().include("_id").include("ratingSum").include("ratingCount");
+        Recipe stored = mongoTemplate.findOne(byId, Recipe.class);
+        if (stored == null) {
+            return false;
+        }
+        
+        // Read after the stored totals, so any rating they include is counted here too
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("recipeId").is(recipeId)),
+                Aggregation.group("recipeId").sum("rating").as("sum").count().as("count"));
+        Document total = mongoTemplate.aggregate(aggregation, Rating.class, Document.class).getUniqueMappedResult();
+        Totals actual = total != null ? Totals.of(total) : Totals.NONE;
+        if (actual.matches(stored)) {
+            return false;
+        }
+        
+        // Compare-and-set on the totals read above
+        Criteria unchanged = Criteria.where("_id").is(recipeId)
+                .and("ratingCount").is(stored.getRatingCount())
+                .and("ratingSum").is(stored.getRatingSum());
+        return mongoTemplate.updateFirst(Query.query(unchanged), totalsUpdate(actual.sum(), actual.count()), Recipe.class)
+                .getModifiedCount() > 0;
+    }
+    
+    private static Update totalsUpdate(double sum, int count) {
+        return new Update()
+                .set("ratingSum", sum)
+                .set("ratingCount", count)
+                .set("averageRating", count > 0 ? sum / count : 0.0);
+    }
+    
+    /**
+     * Rating totals of one recipe.
+     */
+    private record Totals(double sum, int count) {
+        
+        static final Totals NONE = new Totals(0.0, 0);
+        
+        static Totals of(Document total) {
+            return new Totals(total.get("sum", Number.class).doubleValue(), total.get("count", Number.class).intValue());
+        }
+        
+        boolean matches(Recipe recipe) {
+            int storedCount = recipe.getRatingCount() != null ? recipe.getRatingCount() : 0;
+            if (storedCount != count) {
+                return false;
+            }
+            if (recipe.getRatingSum() == null) {
+                return count == 0;
+            }
+            return Math.abs(recipe.getRatingSum() - sum) <= SUM_TOLERANCE;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.project.dishly.service;
+
+import com.project.dishly.model.Recipe;
+
+/**
+ * Application event published by RecipeService after a recipe write succeeds.
+ * In-process indexes and caches listen for it to update themselves incrementally.
+ *
+ * @param recipeId the ID of the changed recipe
+ * @param type what kind of change happened
+ * @param recipe the recipe as stored after the change (null when deleted)
+ */
+public record RecipeChangedEvent(String recipeId, ChangeType type, Recipe recipe) {
+
+    /**
+     * Kind of change made to a recipe.
+     */
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        VISIBILITY,
+        COUNTERS,
+        DELETED
+    }
+}
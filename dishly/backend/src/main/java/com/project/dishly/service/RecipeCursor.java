@@ -0,0 +1,56 @@
+package com.project.dishly.service;
+
+import com.project.dishly.exception.BadRequestException;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes opaque continuation tokens for keyset-paginated recipe feeds.
+ * Feeds are ordered newest first by _id, which is both the sort key and the tie-breaker,
+ * so a token only needs the last _id returned.
+ */
+public final class RecipeCursor {
+    
+    private static final String VERSION_PREFIX = "r1:";
+    
+    private RecipeCursor() {
+    }
+    
+    /**
+     * Encode a continuation token pointing after the given recipe.
+     *
+     * @param lastRecipeId the ID of the last recipe in the current slice
+     * @return opaque cursor string
+     */
+    public static String encode(String lastRecipeId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((VERSION_PREFIX + lastRecipeId).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decode a continuation token.
+     *
+     * @param cursor the cursor from the client; null or blank for the first slice
+     * @return the recipe ID to continue after, or null for the first slice
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public static String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        
+        if (!decoded.startsWith(VERSION_PREFIX) || !ObjectId.isValid(decoded.substring(VERSION_PREFIX.length()))) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return decoded.substring(VERSION_PREFIX.length());
+    }
+}
@@ -0,0 +1,121 @@
+package com.project.dishly.service;
+
+import com.project.dishly.dto.response.RecipeResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of recipe detail responses.
+ * Holds the viewer-independent part of each RecipeResponse (built as seen by the owner, not
+ * liked) together with a version string derived from the recipe's mutable state, which
+ * serves as the base of the detail ETag.
+ *
+ * Size-bounded with Caffeine's W-TinyLFU eviction. Entries are invalidated synchronously by
+ * RecipeChangedEvent, which every recipe write publishes; the TTLs only bound staleness from
+ * writes that bypass RecipeService (e.g. rating reconciliation). Concurrent misses for a hot
+ * recipe share one load, and entries past the soft TTL are served while they refresh.
+ */
+@Component
+public class RecipeDetailCache {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${recipes.detail-cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${recipes.detail-cache.max-size:5000}")
+    private long maxSize;
+    
+    @Value("${recipes.detail-cache.soft-ttl-seconds:60}")
+    private long softTtlSeconds;
+    
+    @Value("${recipes.detail-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+    
+    private SingleFlightCache<String, CachedRecipe> recipes;
+    
+    @PostConstruct
+    public void init() {
+        recipes = new SingleFlightCache<>("recipe-detail", maxSize, Duration.ofSeconds(softTtlSeconds),
+                Duration.ofSeconds(ttlSeconds), meterRegistry, null, null);
+    }
+    
+    /**
+     * Get a recipe's cached detail, loading it on a miss (or on every call when disabled).
+     *
+     * @param id the recipe ID
+     * @param loader builds the detail for a recipe ID; may throw to signal a missing recipe
+     * @return the cached detail
+     */
+    public CachedRecipe get(String id, Function<String, CachedRecipe> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        return recipes.get(id, loader);
+    }
+    
+    /**
+     * Drop a recipe's cached detail.
+     *
+     * @param id the recipe ID
+     */
+    public void invalidate(String id) {
+        recipes.invalidate(id);
+    }
+    
+    /**
+     * Invalidate on every recipe write, in the writing thread, so the next read sees the change.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        invalidate(event.recipeId());
+    }
+    
+    /**
+     * Drop every entry when this node may have missed recipe changes.
+     */
+    @EventListener(LocalStateResyncEvent.class)
+    public void onResync() {
+        recipes.invalidateAll();
+    }
+    
+    /**
+     * Build a cache entry from a recipe's base response.
+     * The version changes whenever a field shown on the detail page can change: content edits
+     * bump updatedAt, while counters and visibility are included directly because their writes
+     * do not always touch updatedAt.
+     *
+     * @param response the response built as seen by the owner, not liked
+     * @return the cache entry
+     */
+    public static CachedRecipe of(RecipeResponse response) {
+        String version = Long.toString(response.getUpdatedAt() != null
+                        ? response.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : 0, 36)
+                + "-" + response.getLikeCount()
+                + "-" + response.getRatingCount()
+                + "-" + Long.toString(Double.doubleToLongBits(
+                        response.getAverageRating() != null ? response.getAverageRating() : 0.0), 36)
+                + (Boolean.TRUE.equals(response.getIsPublic()) ? "-p" : "-x");
+        return new CachedRecipe(response, version);
+    }
+    
+    /**
+     * A cached recipe detail.
+     *
+     * @param response base response; shared, so callers copy it before setting viewer fields
+     * @param version version of the recipe state the response was built from
+     */
+    public record CachedRecipe(RecipeResponse response, String version) {
+    }
+}
@@ -1,16 +1,20 @@
 package com.project.dishly.service;
 
+import com.mongodb.MongoException;
 import com.project.dishly.dto.request.RecipeRequest;
 import com.project.dishly.dto.request.UpdateRecipeRequest;
 import com.project.dishly.dto.request.IngredientRequest;
 import com.project.dishly.dto.request.InstructionRequest;
+import com.project.dishly.dto.response.CursorPageResponse;
+import com.project.dishly.dto.response.PantryMatchResponse;
 import com.project.dishly.dto.response.RecipeResponse;
 import com.project.dishly.dto.response.RecipeListResponse;
+import com.project.dishly.dto.response.SuggestionResponse;
+import com.project.dishly.exception.BadRequestException;
 import com.project.dishly.exception.ResourceNotFoundException;
 import com.project.dishly.exception.UnauthorizedException;
 import com.project.dishly.model.Recipe;
 import com.project.dishly.model.Rating;
-import com.project.dishly.model.Like;
 import com.project.dishly.model.User;
 import com.project.dishly.model.DifficultyLevel;
 import com.project.dishly.model.Ingredient;
@@ -19,12 +23,28 @@ import com.project.dishly.repository.RecipeRepository;
 import com.project.dishly.repository.RatingRepository;
 import com.project.dishly.repository.LikeRepository;
 import com.project.dishly.repository.UserRepository;
+import com.project.dishly.search.FuzzyRecipeIndex;
+import com.project.dishly.search.PantryMatcher;
+import com.project.dishly.search.RecipeSearchIndex;
+import com.project.dishly.search.SearchHits;
+import com.project.dishly.search.SuggestionIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -34,6 +54,19 @@ import java.util.stream.Collectors;
 @Service
 public class RecipeService {
     
+    private static final String SEARCH_ENGINE_MONGO = "mongo";
+    
+    private static final String SEARCH_ENGINE_INDEX = "index";
+    
+    private static final String SEARCH_ENGINE_FUZZY = "fuzzy";
+    
+    private static final int MAX_SUGGESTIONS = 25;
+    
+    private static final int MAX_SLICE_SIZE = 100;
+    
+    /** MongoDB error code for a $text query on a collection without a text index */
+    private static final int INDEX_NOT_FOUND = 27;
+    
     @Autowired
     private RecipeRepository recipeRepository;
     
@@ -46,6 +79,45 @@ public class RecipeService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TrendingLeaderboard trendingLeaderboard;
+    
+    @Autowired
+    private RecipeDetailCache recipeDetailCache;
+    
+    @Autowired
+    private PublicPageCache publicPageCache;
+    
+    @Autowired
+    private TrendingRecipesCache trendingRecipesCache;
+    
+    @Autowired
+    private LikeStatusService likeStatusService;
+    
+    @Autowired
+    private CounterWriteBuffer counterWriteBuffer;
+    
+    @Autowired
+    private RecipeSearchIndex recipeSearchIndex;
+    
+    @Autowired
+    private FuzzyRecipeIndex fuzzyRecipeIndex;
+    
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+    
+    @Autowired
+    private PantryMatcher pantryMatcher;
+    
+    @Autowired
+    private IngredientDictionary ingredientDictionary;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${search.default-engine:mongo}")
+    private String defaultSearchEngine;
+    
     /**
      * Create a new recipe for the authenticated user.
      *
@@ -75,30 +147,106 @@ public class RecipeService {
         recipe.setTags(recipeRequest.getTags());
         
         Recipe savedRecipe = recipeRepository.save(recipe);
+        trendingLeaderboard.update(savedRecipe.getId(), 0, savedRecipe.getIsPublic());
+        publishChange(savedRecipe, RecipeChangedEvent.ChangeType.CREATED);
         return mapToRecipeResponse(savedRecipe, true);
     }
     
     /**
-     * Get a recipe by ID.
-     * Verifies ownership or public status before returning.
+     * Get a recipe by ID together with its ETag.
+     * Verifies ownership or public status before returning. The recipe comes from the detail
+     * cache. The ETag covers the recipe version and everything that differs per viewer
+     * (ownership, like status, servings), so it still needs the like lookup for a signed-in
+     * viewer. The response copy is only built when requested, so a matching conditional request
+     * skips the copy and the scaling.
      *
      * @param id the recipe ID
      * @param userId the authenticated user's ID (null if public viewing)
-     * @return RecipeResponse with recipe details
+     * @param servings servings to scale ingredient quantities to (null for the recipe as stored)
+     * @return RecipeDetail with its strong ETag and a supplier of the response
      * @throws ResourceNotFoundException if recipe not found
      * @throws UnauthorizedException if user doesn't have access
+     * @throws BadRequestException if servings is less than 1
      */
-    public RecipeResponse getRecipeById(String id, String userId) {
-        Recipe recipe = recipeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Recipe not found"));
+    public RecipeDetail getRecipeDetail(String id, String userId, Integer servings) {
+        if (servings != null && servings < 1) {
+            throw new BadRequestException("Servings must be at least 1");
+        }
+        
+        RecipeDetailCache.CachedRecipe cached = recipeDetailCache.get(id, this::loadRecipeDetail);
+        RecipeResponse base = cached.response();
         
         // Check authorization: owner can always view, others only if public
-        boolean isOwner = userId != null && recipe.getUserId().equals(userId);
-        if (!isOwner && !recipe.getIsPublic()) {
+        boolean isOwner = userId != null && base.getUserId().equals(userId);
+        if (!isOwner && !base.getIsPublic()) {
             throw new UnauthorizedException("You don't have permission to view this recipe");
         }
         
-        return mapToRecipeResponse(recipe, isOwner, userId);
+        boolean isLiked = likeStatusService.isLiked(id, userId);
+        boolean scaled = servings != null && base.getServings() != null && base.getServings() > 0;
+        String eTag = "\"" + id + "-" + cached.version() + (isOwner ? "-o" : "") + (isLiked ? "-l" : "")
+                + (scaled ? "-s" + servings : "") + "\"";
+        
+        return new RecipeDetail(eTag, () -> {
+            // Copy the shared base response before filling in viewer-specific fields
+            RecipeResponse response = copyOf(base);
+            response.setIsLiked(isLiked);
+            if (!isOwner) {
+                response.setUserId(null);
+            }
+            if (scaled) {
+                // Scaled copies go into the response only; the cached ingredients are left as stored
+                response.setIngredients(QuantityScaler.scale(base.getIngredients(), (double) servings / base.getServings()));
+                response.setServings(servings);
+            }
+            return response;
+        });
+    }
+    
+    /**
+     * Load a recipe into the detail cache.
+     *
+     * @param id the recipe ID
+     * @return cache entry with the owner's, not-liked view of the recipe
+     * @throws ResourceNotFoundException if recipe not found
+     */
+    private RecipeDetailCache.CachedRecipe loadRecipeDetail(String id) {
+        Recipe recipe = recipeRepository.findById(id)
+                .map(counterWriteBuffer::overlay)
+                .orElseThrow(() -> new ResourceNotFoundException("Recipe not found"));
+        return RecipeDetailCache.of(buildRecipeResponse(recipe, true, false));
+    }
+    
+    /**
+     * Shallow-copy a RecipeResponse; lists are shared and must not be modified.
+     *
+     * @param response the response to copy
+     * @return a new RecipeResponse with the same field values
+     */
+    private static RecipeResponse copyOf(RecipeResponse response) {
+        return new RecipeResponse(
+                response.getId(),
+                response.getTitle(),
+                response.getDescription(),
+                response.getPrepTimeMinutes(),
+                response.getCookTimeMinutes(),
+                response.getServings(),
+                response.getDifficulty(),
+                response.getIsPublic(),
+                response.getAverageRating(),
+                response.getRatingCount(),
+                response.getLikeCount(),
+                response.getIsLiked(),
+                response.getImageUrls(),
+                response.getIngredients(),
+                response.getInstructions(),
+                response.getCategories(),
+                response.getTags(),
+                response.getCreatedAt(),
+                response.getUpdatedAt(),
+                response.getUserId(),
+                response.getUsername()
+        );
     }
     
     /**
@@ -124,9 +272,7 @@ public class RecipeService {
             recipes = recipeRepository.findByUserId(userId);
         }
         
-        return recipes.stream()
-                .map(this::mapToRecipeListResponse)
-                .collect(Collectors.toList());
+        return mapToRecipeListResponses(recipes, userId);
     }
     
     /**
@@ -135,9 +281,25 @@ public class RecipeService {
      * @param search optional search term for title
      * @param category optional category filter
      * @param pageable pagination information
+     * @param userEmail the viewer's email (null for anonymous viewers)
      * @return Page of public recipes
      */
-    public Page<RecipeListResponse> getPublicRecipes(String search, String category, Pageable pageable) {
+    public Page<RecipeListResponse> getPublicRecipes(String search, String category, Pageable pageable, String userEmail) {
+        if (isCacheablePublicListing(search) && pageable.getSort().isUnsorted()) {
+            PublicPageCache.CachedPage page = publicPageCache.get(
+                    PublicPageCache.PageKey.of(category, "page:" + pageable.getPageNumber(), pageable.getPageSize()),
+                    () -> {
+                        Page<Recipe> recipePage = findPublicRecipes(null, category, pageable);
+                        return new PublicPageCache.CachedPage(mapToRecipeListResponses(recipePage.getContent(), null),
+                                recipePage.getTotalElements(), recipePage.hasNext(), null);
+                    });
+            return new PageImpl<>(overlayLikeStatus(page.content(), userEmail), pageable, page.totalElements());
+        }
+        
+        return mapToRecipeListPage(findPublicRecipes(search, category, pageable), userEmail);
+    }
+    
+    private Page<Recipe> findPublicRecipes(String search, String category, Pageable pageable) {
         Page<Recipe> recipePage;
         
         if ((search != null && !search.isEmpty()) && (category != null && !category.isEmpty())) {
@@ -154,7 +316,7 @@ public class RecipeService {
             recipePage = recipeRepository.findByIsPublicTrue(pageable);
         }
         
-        return recipePage.map(this::mapToRecipeListResponse);
+        return recipePage;
     }
     
     /**
@@ -162,10 +324,37 @@ public class RecipeService {
      *
      * @param searchTerm the search term (searches title, description, tags, username)
      * @param category optional category filter
+     * @param engine search engine: "mongo", "index" or "fuzzy" (null for the configured default)
      * @param pageable pagination information
+     * @param userEmail the viewer's email (null for anonymous viewers)
      * @return Page of recipes matching the search
+     * @throws BadRequestException if the engine is unknown or disabled
      */
-    public Page<RecipeListResponse> searchPublicRecipes(String searchTerm, String category, Pageable pageable) {
+    public Page<RecipeListResponse> searchPublicRecipes(String searchTerm, String category, String engine, Pageable pageable, String userEmail) {
+        String selectedEngine = engine != null && !engine.isEmpty() ? engine : defaultSearchEngine;
+        // Without a search term there is nothing to rank; the ranked engines list like the mongo engine does
+        boolean hasTerm = searchTerm != null && !searchTerm.isBlank();
+        
+        if (SEARCH_ENGINE_INDEX.equalsIgnoreCase(selectedEngine)) {
+            if (!recipeSearchIndex.isEnabled()) {
+                throw new BadRequestException("Search engine 'index' is disabled");
+            }
+            if (hasTerm) {
+                return mapSearchHits(recipeSearchIndex.search(
+                        searchTerm, category, (int) pageable.getOffset(), pageable.getPageSize()), pageable, userEmail);
+            }
+        } else if (SEARCH_ENGINE_FUZZY.equalsIgnoreCase(selectedEngine)) {
+            if (!fuzzyRecipeIndex.isEnabled()) {
+                throw new BadRequestException("Search engine 'fuzzy' is disabled");
+            }
+            if (hasTerm) {
+                return mapSearchHits(fuzzyRecipeIndex.search(
+                        searchTerm, category, (int) pageable.getOffset(), pageable.getPageSize()), pageable, userEmail);
+            }
+        } else if (!SEARCH_ENGINE_MONGO.equalsIgnoreCase(selectedEngine)) {
+            throw new BadRequestException("Unknown search engine: " + selectedEngine);
+        }
+        
         Page<Recipe> recipePage;
         
         if ((searchTerm != null && !searchTerm.isEmpty()) && (category != null && !category.isEmpty())) {
@@ -175,8 +364,11 @@ public class RecipeService {
             // Search across multiple fields - try text search first, fallback to title
             try {
                 recipePage = recipeRepository.searchPublicRecipes(searchTerm, pageable);
-            } catch (Exception e) {
-                // Fallback if text search fails
+            } catch (DataAccessException e) {
+                if (!isMissingTextIndex(e)) {
+                    throw e;
+                }
+                // Fallback if the text index does not exist
                 recipePage = recipeRepository.findByIsPublicTrueAndTitleContainingIgnoreCase(searchTerm, pageable);
             }
         } else if (category != null && !category.isEmpty()) {
@@ -187,7 +379,186 @@ public class RecipeService {
             recipePage = recipeRepository.findByIsPublicTrue(pageable);
         }
         
-        return recipePage.map(this::mapToRecipeListResponse);
+        return mapToRecipeListPage(recipePage, userEmail);
+    }
+    
+    /**
+     * Map a page of ranked hits from an in-process search index to RecipeListResponse DTOs.
+     * Only the page of ranked IDs is fetched from MongoDB, projected to card fields.
+     *
+     * @param hits the ranked hits for the requested page
+     * @param pageable pagination information
+     * @param userEmail the viewer's email (null for anonymous viewers)
+     * @return Page of recipes in rank order
+     */
+    private Page<RecipeListResponse> mapSearchHits(SearchHits hits, Pageable pageable, String userEmail) {
+        if (hits.recipeIds().isEmpty()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, hits.total());
+        }
+        
+        // Fetch by ID and restore rank order
+        Map<String, Recipe> recipesById = recipeRepository.findByIdIn(hits.recipeIds())
+                .stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+        List<Recipe> recipes = hits.recipeIds().stream()
+                .map(recipesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        
+        return new PageImpl<>(mapToRecipeListResponses(recipes, userEmail), pageable, hits.total());
+    }
+    
+    /**
+     * Find public recipes that can be cooked from a pantry.
+     * Recipes are ranked by fewest missing ingredients, then by most pantry ingredients used.
+     *
+     * @param ingredients ingredient names on hand
+     * @param maxMissing maximum number of recipe ingredients allowed to be missing
+     * @param pageable pagination information
+     * @param userEmail the viewer's email (null for anonymous viewers)
+     * @return Page of PantryMatchResponse
+     * @throws BadRequestException if the pantry is empty or maxMissing is negative
+     */
+    public Page<PantryMatchResponse> findRecipesByPantry(List<String> ingredients, int maxMissing, Pageable pageable, String userEmail) {
+        if (ingredients == null || ingredients.isEmpty()) {
+            throw new BadRequestException("At least one ingredient is required");
+        }
+        if (maxMissing < 0) {
+            throw new BadRequestException("maxMissing cannot be negative");
+        }
+        
+        PantryMatcher.PantryMatches result = pantryMatcher.match(
+                ingredients, maxMissing, (int) pageable.getOffset(), pageable.getPageSize());
+        List<String> recipeIds = result.matches().stream()
+                .map(PantryMatcher.PantryMatch::recipeId)
+                .collect(Collectors.toList());
+        if (recipeIds.isEmpty()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, result.total());
+        }
+        
+        Map<String, RecipeListResponse> cardsById = mapToRecipeListResponses(recipeRepository.findByIdIn(recipeIds), userEmail)
+                .stream()
+                .collect(Collectors.toMap(RecipeListResponse::getId, Function.identity()));
+        List<PantryMatchResponse> content = result.matches().stream()
+                .filter(match -> cardsById.containsKey(match.recipeId()))
+                .map(match -> new PantryMatchResponse(cardsById.get(match.recipeId()),
+                        match.matchedCount(), match.missingCount(), match.missingIngredients()))
+                .collect(Collectors.toList());
+        
+        return new PageImpl<>(content, pageable, result.total());
+    }
+    
+    /**
+     * Suggest completions for a search-box prefix from the in-memory suggestion index.
+     * Matches public recipe titles, tags, categories and ingredient names; no database I/O.
+     *
+     * @param prefix the typed prefix
+     * @param limit maximum number of suggestions
+     * @return list of SuggestionResponse, most popular first
+     */
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        return suggestionIndex.suggest(prefix, Math.min(Math.max(limit, 0), MAX_SUGGESTIONS))
+                .stream()
+                .map(completion -> new SuggestionResponse(completion.text(), completion.weight()))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Get a keyset-paginated slice of public recipes, newest first.
+     * Continues after the cursor instead of skipping documents and never runs a count query.
+     *
+     * @param search optional search term for title
+     * @param category optional exact category filter
+     * @param cursor continuation token from the previous slice (null or blank for the first)
+     * @param size slice size
+     * @param userEmail the viewer's email (null for anonymous viewers)
+     * @return CursorPageResponse of public recipes
+     */
+    public CursorPageResponse<RecipeListResponse> getPublicRecipesSlice(String search, String category, String cursor, int size, String userEmail) {
+        if (isCacheablePublicListing(search)) {
+            PublicPageCache.CachedPage page = publicPageCache.get(
+                    PublicPageCache.PageKey.exact(category, "cursor:" + (cursor != null ? cursor.trim() : ""), size),
+                    () -> {
+                        CursorPageResponse<RecipeListResponse> slice = mapToCursorPage(recipeRepository.findPublicSlice(
+                                null, emptyToNull(category), null, RecipeCursor.decode(cursor), sliceLimit(size)), size, null);
+                        return new PublicPageCache.CachedPage(slice.getContent(), -1, slice.isHasNext(), slice.getNextCursor());
+                    });
+            return new CursorPageResponse<>(overlayLikeStatus(page.content(), userEmail),
+                    page.content().size(), page.hasNext(), page.nextCursor());
+        }
+        
+        List<Recipe> recipes = recipeRepository.findPublicSlice(
+                emptyToNull(search), emptyToNull(category), null, RecipeCursor.decode(cursor), sliceLimit(size));
+        
+        return mapToCursorPage(recipes, size, userEmail);
+    }
+    
+    /**
+     * Search public recipes by multiple fields, keyset-paginated newest first.
+     *
+     * @param searchTerm the search term (searches title, description, tags, username)
+     * @param category optional exact category filter
+     * @param engine requested search engine (only "mongo" supports cursors; null for mongo)
+     * @param cursor continuation token from the previous slice (null or blank for the first)
+     * @param size slice size
+     * @param userEmail the viewer's email (null for anonymous viewers)
+     * @return CursorPageResponse of recipes matching the search
+     * @throws BadRequestException if another engine is requested
+     */
+    public CursorPageResponse<RecipeListResponse> searchPublicRecipesSlice(String searchTerm, String category, String engine, String cursor, int size, String userEmail) {
+        if (engine != null && !engine.isEmpty() && !SEARCH_ENGINE_MONGO.equalsIgnoreCase(engine)) {
+            throw new BadRequestException("Cursor pagination is only supported by the mongo search engine");
+        }
+        
+        String afterId = RecipeCursor.decode(cursor);
+        String term = emptyToNull(searchTerm);
+        String categoryFilter = emptyToNull(category);
+        List<Recipe> recipes;
+        
+        if (term != null && categoryFilter == null) {
+            // Search across multiple fields - try text search first, fallback to title
+            try {
+                recipes = recipeRepository.findPublicSlice(null, null, term, afterId, sliceLimit(size));
+            } catch (DataAccessException e) {
+                if (!isMissingTextIndex(e)) {
+                    throw e;
+                }
+                recipes = recipeRepository.findPublicSlice(term, null, null, afterId, sliceLimit(size));
+            }
+        } else {
+            recipes = recipeRepository.findPublicSlice(term, categoryFilter, null, afterId, sliceLimit(size));
+        }
+        
+        return mapToCursorPage(recipes, size, userEmail);
+    }
+    
+    /**
+     * Get a keyset-paginated slice of a user's recipes, newest first.
+     * Filters follow the same precedence as getUserRecipes.
+     *
+     * @param userId the user's ID
+     * @param search optional search term for title
+     * @param category optional category filter
+     * @param tag optional tag filter
+     * @param cursor continuation token from the previous slice (null or blank for the first)
+     * @param size slice size
+     * @return CursorPageResponse of the user's recipes
+     */
+    public CursorPageResponse<RecipeListResponse> getUserRecipesSlice(String userId, String search, String category, String tag, String cursor, int size) {
+        String afterId = RecipeCursor.decode(cursor);
+        List<Recipe> recipes;
+        
+        if (search != null && !search.isEmpty()) {
+            recipes = recipeRepository.findUserSlice(userId, search, null, null, afterId, sliceLimit(size));
+        } else if (category != null && !category.isEmpty()) {
+            recipes = recipeRepository.findUserSlice(userId, null, category, null, afterId, sliceLimit(size));
+        } else if (tag != null && !tag.isEmpty()) {
+            recipes = recipeRepository.findUserSlice(userId, null, null, tag, afterId, sliceLimit(size));
+        } else {
+            recipes = recipeRepository.findUserSlice(userId, null, null, null, afterId, sliceLimit(size));
+        }
+        
+        return mapToCursorPage(recipes, size, userId);
     }
     
     /**
@@ -196,7 +567,7 @@ public class RecipeService {
      */
     public Page<RecipeListResponse> getPublicRecipesDefault(Pageable pageable) {
         return recipeRepository.findByIsPublicTrue(pageable)
-                .map(this::mapToRecipeListResponse);
+                .map(recipe -> mapToRecipeListResponse(recipe, false));
     }
     
     /**
@@ -211,52 +582,53 @@ public class RecipeService {
      * @throws UnauthorizedException if user is not the owner
      */
     public RecipeResponse updateRecipe(String id, UpdateRecipeRequest updateRequest, String userId) {
-        Recipe recipe = recipeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Recipe not found"));
-        
-        if (!recipe.getUserId().equals(userId)) {
-            throw new UnauthorizedException("You can only update your own recipes");
-        }
-        
-        // Update only provided fields
+        // Update only provided fields; counters are never rewritten from a stale copy
+        Update update = new Update();
         if (updateRequest.getTitle() != null) {
-            recipe.setTitle(updateRequest.getTitle());
+            update.set("title", updateRequest.getTitle());
         }
         if (updateRequest.getDescription() != null) {
-            recipe.setDescription(updateRequest.getDescription());
+            update.set("description", updateRequest.getDescription());
         }
         if (updateRequest.getPrepTimeMinutes() != null) {
-            recipe.setPrepTimeMinutes(updateRequest.getPrepTimeMinutes());
+            update.set("prepTimeMinutes", updateRequest.getPrepTimeMinutes());
         }
         if (updateRequest.getCookTimeMinutes() != null) {
-            recipe.setCookTimeMinutes(updateRequest.getCookTimeMinutes());
+            update.set("cookTimeMinutes", updateRequest.getCookTimeMinutes());
         }
         if (updateRequest.getServings() != null) {
-            recipe.setServings(updateRequest.getServings());
+            update.set("servings", updateRequest.getServings());
         }
         if (updateRequest.getDifficulty() != null) {
-            recipe.setDifficulty(DifficultyLevel.valueOf(updateRequest.getDifficulty().toUpperCase()));
+            update.set("difficulty", DifficultyLevel.valueOf(updateRequest.getDifficulty().toUpperCase()));
         }
         if (updateRequest.getIsPublic() != null) {
-            recipe.setIsPublic(updateRequest.getIsPublic());
+            update.set("isPublic", updateRequest.getIsPublic());
         }
         if (updateRequest.getImageUrls() != null) {
-            recipe.setImageUrls(updateRequest.getImageUrls());
+            update.set("imageUrls", updateRequest.getImageUrls());
         }
         if (updateRequest.getIngredients() != null) {
-            recipe.setIngredients(mapIngredients(updateRequest.getIngredients()));
+            update.set("ingredients", mapIngredients(updateRequest.getIngredients()));
         }
         if (updateRequest.getInstructions() != null) {
-            recipe.setInstructions(mapInstructions(updateRequest.getInstructions()));
+            update.set("instructions", mapInstructions(updateRequest.getInstructions()));
         }
         if (updateRequest.getCategories() != null) {
-            recipe.setCategories(updateRequest.getCategories());
+            update.set("categories", updateRequest.getCategories());
         }
         if (updateRequest.getTags() != null) {
-            recipe.setTags(updateRequest.getTags());
+            update.set("tags", updateRequest.getTags());
         }
         
-        Recipe updatedRecipe = recipeRepository.save(recipe);
+        Recipe updatedRecipe = recipeRepository.updateOwnedRecipe(id, userId, update);
+        if (updatedRecipe == null) {
+            throw ownershipFailure(id, "You can only update your own recipes");
+        }
+        trendingLeaderboard.update(updatedRecipe.getId(),
+                updatedRecipe.getLikeCount() != null ? updatedRecipe.getLikeCount() : 0,
+                updatedRecipe.getIsPublic());
+        publishChange(updatedRecipe, RecipeChangedEvent.ChangeType.UPDATED);
         return mapToRecipeResponse(updatedRecipe, true);
     }
     
@@ -282,6 +654,8 @@ public class RecipeService {
         ratingRepository.deleteByRecipeId(id);
         
         recipeRepository.delete(recipe);
+        trendingLeaderboard.remove(id);
+        eventPublisher.publishEvent(new RecipeChangedEvent(id, RecipeChangedEvent.ChangeType.DELETED, null));
     }
     
     /**
@@ -295,15 +669,14 @@ public class RecipeService {
      * @throws UnauthorizedException if user is not the owner
      */
     public RecipeResponse toggleVisibility(String id, String userId) {
-        Recipe recipe = recipeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Recipe not found"));
-        
-        if (!recipe.getUserId().equals(userId)) {
-            throw new UnauthorizedException("You can only change visibility of your own recipes");
+        Recipe updatedRecipe = recipeRepository.toggleVisibility(id, userId);
+        if (updatedRecipe == null) {
+            throw ownershipFailure(id, "You can only change visibility of your own recipes");
         }
-        
-        recipe.setIsPublic(!recipe.getIsPublic());
-        Recipe updatedRecipe = recipeRepository.save(recipe);
+        trendingLeaderboard.update(updatedRecipe.getId(),
+                updatedRecipe.getLikeCount() != null ? updatedRecipe.getLikeCount() : 0,
+                updatedRecipe.getIsPublic());
+        publishChange(updatedRecipe, RecipeChangedEvent.ChangeType.VISIBILITY);
         
         return mapToRecipeResponse(updatedRecipe, true);
     }
@@ -331,64 +704,28 @@ public class RecipeService {
             throw new UnauthorizedException("You cannot rate your own recipes");
         }
         
-        // Check if user already rated this recipe
-        java.util.Optional<Rating> existingRating = ratingRepository.findByRecipeIdAndUserId(id, userEmail);
+        // Create or update the user's rating, getting back the previous value atomically
+        Rating previousRating = ratingRepository.upsertRating(id, userEmail, user.getUsername(), rating);
+        
+        // Apply only the delta to the recipe's running totals
+        double sumDelta = previousRating != null ? rating - previousRating.getRating() : rating;
+        int countDelta = previousRating != null ? 0 : 1;
         
-        Rating ratingObj;
-        if (existingRating.isPresent()) {
-            // Update existing rating
-            ratingObj = existingRating.get();
-            ratingObj.setRating(rating);
+        Recipe updatedRecipe;
+        if (counterWriteBuffer.isEnabled()) {
+            counterWriteBuffer.addRating(id, sumDelta, countDelta);
+            updatedRecipe = counterWriteBuffer.overlay(recipe);
         } else {
-            // Create new rating
-            ratingObj = new Rating();
-            ratingObj.setRecipeId(id);
-            ratingObj.setUserId(userEmail);
-            ratingObj.setUsername(user.getUsername());
-            ratingObj.setRating(rating);
+            updatedRecipe = recipeRepository.applyRatingDelta(id, sumDelta, countDelta);
         }
-        
-        ratingRepository.save(ratingObj);
-        
-        // Recalculate average rating
-        recalculateRecipeRating(id);
-        
-        Recipe updatedRecipe = recipeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Recipe not found"));
+        if (updatedRecipe == null) {
+            throw new ResourceNotFoundException("Recipe not found");
+        }
+        publishChange(updatedRecipe, RecipeChangedEvent.ChangeType.COUNTERS);
         
         return mapToRecipeResponse(updatedRecipe, false);
     }
     
-    /**
-     * Recalculate the average rating for a recipe based on all user ratings.
-     *
-     * @param recipeId the recipe ID
-     */
-    private void recalculateRecipeRating(String recipeId) {
-        List<Rating> ratings = ratingRepository.findByRecipeId(recipeId);
-        
-        if (ratings.isEmpty()) {
-            // No ratings, reset to 0
-            Recipe recipe = recipeRepository.findById(recipeId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Recipe not found"));
-            recipe.setAverageRating(0.0);
-            recipe.setRatingCount(0);
-            recipeRepository.save(recipe);
-        } else {
-            // Calculate average
-            double average = ratings.stream()
-                    .mapToDouble(Rating::getRating)
-                    .average()
-                    .orElse(0.0);
-            
-            Recipe recipe = recipeRepository.findById(recipeId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Recipe not found"));
-            recipe.setAverageRating(average);
-            recipe.setRatingCount(ratings.size());
-            recipeRepository.save(recipe);
-        }
-    }
-    
     /**
      * Copy a public recipe to user's account.
      * Creates a new recipe document with copied data.
@@ -429,9 +766,34 @@ public class RecipeService {
         newRecipe.setTags(originalRecipe.getTags());
         
         Recipe savedRecipe = recipeRepository.save(newRecipe);
+        publishChange(savedRecipe, RecipeChangedEvent.ChangeType.CREATED);
         return mapToRecipeResponse(savedRecipe, true);
     }
     
+    /**
+     * Notify in-process indexes and caches that a recipe was written.
+     *
+     * @param recipe the recipe as stored after the change
+     * @param type the kind of change
+     */
+    private void publishChange(Recipe recipe, RecipeChangedEvent.ChangeType type) {
+        eventPublisher.publishEvent(new RecipeChangedEvent(recipe.getId(), type, recipe));
+    }
+    
+    /**
+     * Explain why an owner-scoped update matched no recipe.
+     *
+     * @param id the recipe ID
+     * @param message the message to use when the recipe exists but is owned by someone else
+     * @return ResourceNotFoundException or UnauthorizedException
+     */
+    private RuntimeException ownershipFailure(String id, String message) {
+        if (!recipeRepository.existsById(id)) {
+            return new ResourceNotFoundException("Recipe not found");
+        }
+        return new UnauthorizedException(message);
+    }
+    
     /**
      * Map IngredientRequest DTOs to Ingredient entities.
      *
@@ -440,7 +802,8 @@ public class RecipeService {
      */
     private List<Ingredient> mapIngredients(List<IngredientRequest> ingredientRequests) {
         return ingredientRequests.stream()
-                .map(req -> new Ingredient(req.getName(), req.getQuantity(), req.getUnit(), req.getOrder()))
+                .map(req -> new Ingredient(req.getName(), req.getQuantity(), req.getUnit(), req.getOrder(),
+                        ingredientDictionary.canonicalName(req.getName())))
                 .collect(Collectors.toList());
     }
     
@@ -478,29 +841,27 @@ public class RecipeService {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
-        Recipe recipe = recipeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Recipe not found"));
-        
-        // Check if user already liked this recipe
-        java.util.Optional<Like> existingLike = likeRepository.findByRecipeIdAndUserId(id, userEmail);
-        
-        if (!existingLike.isPresent()) {
-            // Create new like
-            Like like = new Like();
-            like.setRecipeId(id);
-            like.setUserId(userEmail);
-            like.setUsername(user.getUsername());
-            likeRepository.save(like);
-            
-            // Increment like count
-            recipe.setLikeCount((recipe.getLikeCount() != null ? recipe.getLikeCount() : 0) + 1);
-            recipeRepository.save(recipe);
+        if (!recipeRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Recipe not found");
         }
         
-        Recipe updatedRecipe = recipeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Recipe not found"));
+        // Idempotent insert guarded by the unique (recipeId, userId) index;
+        // the like count only moves when a like was actually created
+        boolean created = likeRepository.insertIfAbsent(id, userEmail, user.getUsername());
+        Recipe updatedRecipe = created ? changeLikeCount(id, 1) : null;
+        if (updatedRecipe == null) {
+            updatedRecipe = recipeRepository.findById(id)
+                    .map(counterWriteBuffer::overlay)
+                    .orElseThrow(() -> new ResourceNotFoundException("Recipe not found"));
+        }
+        trendingLeaderboard.update(id,
+                updatedRecipe.getLikeCount() != null ? updatedRecipe.getLikeCount() : 0,
+                updatedRecipe.getIsPublic());
+        if (created) {
+            publishChange(updatedRecipe, RecipeChangedEvent.ChangeType.COUNTERS);
+        }
         
-        return mapToRecipeResponse(updatedRecipe, false, userEmail);
+        return buildRecipeResponse(updatedRecipe, false, true);
     }
     
     /**
@@ -511,56 +872,184 @@ public class RecipeService {
      * @return RecipeResponse with updated like status
      */
     public RecipeResponse unlikeRecipe(String id, String userEmail) {
-        Recipe recipe = recipeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Recipe not found"));
-        
-        // Check if user liked this recipe
-        java.util.Optional<Like> existingLike = likeRepository.findByRecipeIdAndUserId(id, userEmail);
-        
-        if (existingLike.isPresent()) {
-            // Remove like
-            likeRepository.deleteByRecipeIdAndUserId(id, userEmail);
-            
-            // Decrement like count
-            recipe.setLikeCount(Math.max(0, (recipe.getLikeCount() != null ? recipe.getLikeCount() : 0) - 1));
-            recipeRepository.save(recipe);
+        // The like count only moves when a like was actually removed
+        boolean removed = likeRepository.deleteByRecipeIdAndUserId(id, userEmail) > 0;
+        Recipe updatedRecipe = removed ? changeLikeCount(id, -1) : null;
+        if (updatedRecipe == null) {
+            updatedRecipe = recipeRepository.findById(id)
+                    .map(counterWriteBuffer::overlay)
+                    .orElseThrow(() -> new ResourceNotFoundException("Recipe not found"));
+        }
+        trendingLeaderboard.update(id,
+                updatedRecipe.getLikeCount() != null ? updatedRecipe.getLikeCount() : 0,
+                updatedRecipe.getIsPublic());
+        if (removed) {
+            publishChange(updatedRecipe, RecipeChangedEvent.ChangeType.COUNTERS);
         }
         
-        Recipe updatedRecipe = recipeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Recipe not found"));
+        return buildRecipeResponse(updatedRecipe, false, false);
+    }
+    
+    /**
+     * Apply a like-count change, either immediately with $inc or through the write-behind buffer.
+     *
+     * @param id the recipe ID
+     * @param delta amount to add (negative to decrement)
+     * @return the recipe with the change applied, or null if the immediate update matched nothing
+     */
+    private Recipe changeLikeCount(String id, int delta) {
+        if (!counterWriteBuffer.isEnabled()) {
+            return recipeRepository.incrementLikeCount(id, delta);
+        }
         
-        return mapToRecipeResponse(updatedRecipe, false, userEmail);
+        counterWriteBuffer.addLikes(id, delta);
+        return recipeRepository.findById(id)
+                .map(counterWriteBuffer::overlay)
+                .orElse(null);
     }
     
     /**
      * Get most liked public recipes.
+     * Ranking comes from the in-memory trending leaderboard; only the top recipes are fetched,
+     * and the result is shared through the trending cache.
      *
      * @param limit the number of recipes to return
      * @return list of most liked recipes
      */
     public List<RecipeListResponse> getMostLikedRecipes(int limit) {
-        List<Recipe> recipes = recipeRepository.findAll()
+        return new ArrayList<>(trendingRecipesCache.get(limit, this::loadMostLikedRecipes));
+    }
+    
+    private List<RecipeListResponse> loadMostLikedRecipes(int limit) {
+        List<String> recipeIds = trendingLeaderboard.top(limit);
+        if (recipeIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // Fetch by ID and restore leaderboard order
+        Map<String, Recipe> recipesById = recipeRepository.findByIdIn(recipeIds)
                 .stream()
-                .filter(Recipe::getIsPublic)
-                .sorted((r1, r2) -> {
-                    int r1Likes = r1.getLikeCount() != null ? r1.getLikeCount() : 0;
-                    int r2Likes = r2.getLikeCount() != null ? r2.getLikeCount() : 0;
-                    return r2Likes - r1Likes;
-                })
-                .limit(limit)
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+        
+        return recipeIds.stream()
+                .map(recipesById::get)
+                .filter(Objects::nonNull)
+                .map(recipe -> mapToRecipeListResponse(recipe, false))
                 .collect(Collectors.toList());
+    }
+    
+    /**
+     * Map a list of recipes to RecipeListResponse DTOs, resolving like status in one query.
+     *
+     * @param recipes the Recipe entities
+     * @param userEmail the viewer's email (null for anonymous viewers)
+     * @return list of RecipeListResponse DTOs
+     */
+    private List<RecipeListResponse> mapToRecipeListResponses(List<Recipe> recipes, String userEmail) {
+        Set<String> likedRecipeIds = likeStatusService.resolveLikedRecipeIds(
+                recipes.stream().map(Recipe::getId).collect(Collectors.toList()), userEmail);
         
         return recipes.stream()
-                .map(recipe -> mapToRecipeListResponse(recipe, null))
+                .map(recipe -> mapToRecipeListResponse(recipe, likedRecipeIds.contains(recipe.getId())))
                 .collect(Collectors.toList());
     }
     
-    private RecipeListResponse mapToRecipeListResponse(Recipe recipe, String userEmail) {
-        boolean isLiked = false;
-        if (userEmail != null) {
-            isLiked = likeRepository.findByRecipeIdAndUserId(recipe.getId(), userEmail).isPresent();
+    /**
+     * Map a keyset query result to a cursor page.
+     * The query fetches one extra recipe to detect whether another slice exists.
+     *
+     * @param recipes up to size + 1 recipes ordered by _id descending
+     * @param size requested slice size
+     * @param userEmail the viewer's email (null for anonymous viewers)
+     * @return CursorPageResponse of RecipeListResponse DTOs
+     */
+    private CursorPageResponse<RecipeListResponse> mapToCursorPage(List<Recipe> recipes, int size, String userEmail) {
+        boolean hasNext = recipes.size() > size;
+        List<Recipe> slice = hasNext ? recipes.subList(0, size) : recipes;
+        String nextCursor = hasNext ? RecipeCursor.encode(slice.get(slice.size() - 1).getId()) : null;
+        
+        return new CursorPageResponse<>(mapToRecipeListResponses(slice, userEmail), slice.size(), hasNext, nextCursor);
+    }
+    
+    /**
+     * Number of recipes to fetch for a slice: one more than requested, to detect a next slice.
+     *
+     * @param size requested slice size
+     * @return query limit
+     * @throws BadRequestException if the size is below 1 or above MAX_SLICE_SIZE
+     */
+    private static int sliceLimit(int size) {
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
         }
+        if (size > MAX_SLICE_SIZE) {
+            throw new BadRequestException("Page size must be at most " + MAX_SLICE_SIZE);
+        }
+        return size + 1;
+    }
+    
+    /**
+     * Whether a query failed because the recipes collection has no text index.
+     *
+     * @param e the translated exception
+     * @return true for a missing text index
+     */
+    private static boolean isMissingTextIndex(DataAccessException e) {
+        return e.getMostSpecificCause() instanceof MongoException cause && cause.getCode() == INDEX_NOT_FOUND;
+    }
+    
+    /**
+     * Whether a public listing goes through the page cache: the unfiltered and per-category
+     * feeds are shared by many viewers, while free-text searches rarely repeat.
+     *
+     * @param search the search term
+     * @return true if the listing is cached
+     */
+    private boolean isCacheablePublicListing(String search) {
+        return publicPageCache.isEnabled() && (search == null || search.isEmpty());
+    }
+    
+    /**
+     * Copy cached cards with the viewer's like status set, leaving the shared cards untouched.
+     *
+     * @param cards cached cards (isLiked false)
+     * @param userEmail the viewer's email (null for anonymous viewers)
+     * @return cards as seen by the viewer
+     */
+    private List<RecipeListResponse> overlayLikeStatus(List<RecipeListResponse> cards, String userEmail) {
+        if (userEmail == null) {
+            return cards;
+        }
+        Set<String> likedRecipeIds = likeStatusService.resolveLikedRecipeIds(
+                cards.stream().map(RecipeListResponse::getId).collect(Collectors.toList()), userEmail);
+        
+        return cards.stream()
+                .map(card -> new RecipeListResponse(card.getId(), card.getTitle(), card.getImageUrls(),
+                        card.getPrepTimeMinutes(), card.getCookTimeMinutes(), card.getAverageRating(),
+                        card.getRatingCount(), card.getLikeCount(), likedRecipeIds.contains(card.getId()),
+                        card.getCategories(), card.getDifficulty(), card.getServings(), card.getUsername()))
+                .collect(Collectors.toList());
+    }
+    
+    private static String emptyToNull(String value) {
+        return value != null && !value.isEmpty() ? value : null;
+    }
+    
+    /**
+     * Map a page of recipes to RecipeListResponse DTOs, resolving like status in one query.
+     *
+     * @param recipePage the page of Recipe entities
+     * @param userEmail the viewer's email (null for anonymous viewers)
+     * @return Page of RecipeListResponse DTOs
+     */
+    private Page<RecipeListResponse> mapToRecipeListPage(Page<Recipe> recipePage, String userEmail) {
+        Set<String> likedRecipeIds = likeStatusService.resolveLikedRecipeIds(
+                recipePage.getContent().stream().map(Recipe::getId).collect(Collectors.toList()), userEmail);
         
+        return recipePage.map(recipe -> mapToRecipeListResponse(recipe, likedRecipeIds.contains(recipe.getId())));
+    }
+    
+    private RecipeListResponse mapToRecipeListResponse(Recipe recipe, boolean isLiked) {
         return new RecipeListResponse(
                 recipe.getId(),
                 recipe.getTitle(),
@@ -579,11 +1068,18 @@ public class RecipeService {
     }
     
     private RecipeResponse mapToRecipeResponse(Recipe recipe, boolean isOwner, String userEmail) {
-        boolean isLiked = false;
-        if (userEmail != null) {
-            isLiked = likeRepository.findByRecipeIdAndUserId(recipe.getId(), userEmail).isPresent();
-        }
-        
+        return buildRecipeResponse(recipe, isOwner, likeStatusService.isLiked(recipe.getId(), userEmail));
+    }
+    
+    /**
+     * Build a RecipeResponse when the viewer's like status is already known.
+     *
+     * @param recipe the Recipe entity
+     * @param isOwner whether the viewer owns the recipe
+     * @param isLiked whether the viewer has liked the recipe
+     * @return RecipeResponse DTO
+     */
+    private RecipeResponse buildRecipeResponse(Recipe recipe, boolean isOwner, boolean isLiked) {
         RecipeResponse response = new RecipeResponse();
         response.setId(recipe.getId());
         response.setTitle(recipe.getTitle());
@@ -612,14 +1108,13 @@ public class RecipeService {
         
         return response;
     }
-
+    
     /**
-     * Map Recipe entity to RecipeListResponse DTO.
+     * A recipe detail response with its strong ETag.
      *
-     * @param recipe the Recipe entity
-     * @return RecipeListResponse DTO
+     * @param eTag quoted entity tag identifying this exact representation
+     * @param response builds the response for the viewer; not needed for a 304
      */
-    private RecipeListResponse mapToRecipeListResponse(Recipe recipe) {
-        return mapToRecipeListResponse(recipe, null);
+    public record RecipeDetail(String eTag, Supplier<RecipeResponse> response) {
     }
 }
@@ -0,0 +1,187 @@
+package com.project.dishly.service;
+
+import com.project.dishly.model.Ingredient;
+import com.project.dishly.model.ShoppingItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Merges recipe ingredients into shopping list items.
+ *
+ * Quantities are converted to their dimension's base unit (grams, millilitres, pieces), so
+ * "500 g" and "1 kg" or "2 tbsp" and "1/4 cup" of the same ingredient become one item.
+ * Items are keyed by (ingredient ID, dimension) packed into a long and stored in an
+ * open-addressing table over parallel primitive arrays; adding an ingredient allocates
+ * nothing once its item exists. Units with no known conversion ("clove", "pinch") only merge
+ * with the same unit. Names the dictionary cannot resolve (no letters or digits) only merge
+ * with the same spelling.
+ *
+ * Not thread-safe; create one per shopping list.
+ */
+public class ShoppingListAggregator {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    /** Unit keys 0..2 are the convertible dimensions; unknown units are numbered from here */
+    private static final int FIRST_UNKNOWN_UNIT_KEY = UnitConverter.Dimension.values().length;
+
+    private final IngredientDictionary ingredientDictionary;
+
+    private final Map<String, Integer> unknownUnitKeys = new HashMap<>();
+
+    /** Keys for unresolvable names, numbered down from -2 so they never collide with IDs */
+    private final Map<String, Integer> unknownNameKeys = new HashMap<>();
+
+    private long[] table;
+
+    /** table slot -> item index (valid where table holds a key) */
+    private int[] tableItems;
+
+    private int size = 0;
+
+    // Per-item state, in insertion order
+    private double[] quantities;
+
+    private String[] names;
+
+    private String[] firstUnits;
+
+    private UnitConverter.Unit[] parsedUnits;
+
+    private boolean[] mixedUnits;
+
+    /**
+     * Create an aggregator sized for the expected number of ingredients.
+     *
+     * @param ingredientDictionary dictionary used to resolve ingredient names to IDs
+     * @param expectedIngredients expected number of ingredients across all recipes
+     */
+    public ShoppingListAggregator(IngredientDictionary ingredientDictionary, int expectedIngredients) {
+        this.ingredientDictionary = ingredientDictionary;
+        int capacity = Integer.highestOneBit(Math.max(16, expectedIngredients * 2 - 1)) << 1;
+        table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        tableItems = new int[capacity];
+        int items = Math.max(8, expectedIngredients);
+        quantities = new double[items];
+        names = new String[items];
+        firstUnits = new String[items];
+        parsedUnits = new UnitConverter.Unit[items];
+        mixedUnits = new boolean[items];
+    }
+
+    /**
+     * Add one recipe ingredient.
+     *
+     * @param ingredient the ingredient
+     * @param factor servings multiplier for the ingredient's recipe
+     */
+    public void add(Ingredient ingredient, double factor) {
+        UnitConverter.Unit unit = UnitConverter.parse(ingredient.getUnit());
+        int unitKey = unit != null ? unit.dimension().ordinal() : unknownUnitKey(ingredient.getUnit());
+        long key = ((long) ingredientKey(ingredient) << 32) | (unitKey & 0xFFFFFFFFL);
+        double quantity = ingredient.getQuantity() != null ? ingredient.getQuantity() * factor : 0.0;
+        double amount = unit != null ? quantity * unit.toBase() : quantity;
+
+        int mask = table.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (table[slot] != EMPTY) {
+            if (table[slot] == key) {
+                int item = tableItems[slot];
+                quantities[item] += amount;
+                if (!mixedUnits[item] && parsedUnits[item] != unit) {
+                    mixedUnits[item] = true;
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int item = size++;
+        ensureItemCapacity(size);
+        table[slot] = key;
+        tableItems[slot] = item;
+        quantities[item] = amount;
+        names[item] = ingredient.getName();
+        firstUnits[item] = ingredient.getUnit();
+        parsedUnits[item] = unit;
+        if (size * 2 > table.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * Build the merged shopping items, in the order ingredients were first seen.
+     * An item written in a single unit keeps that unit; a mix of units is shown in a readable
+     * metric unit (g/kg, ml/l, pieces). Quantities are rounded per unit by QuantityScaler.
+     *
+     * @return list of ShoppingItem
+     */
+    public List<ShoppingItem> items() {
+        List<ShoppingItem> items = new ArrayList<>(size);
+        for (int item = 0; item < size; item++) {
+            UnitConverter.Unit unit = parsedUnits[item];
+            String displayUnit = firstUnits[item];
+            double quantity = quantities[item];
+            if (unit != null) {
+                if (mixedUnits[item]) {
+                    unit = UnitConverter.displayUnit(unit.dimension(), quantity);
+                    displayUnit = unit.symbol();
+                }
+                quantity /= unit.toBase();
+            }
+            items.add(new ShoppingItem(names[item], QuantityScaler.round(quantity, unit), displayUnit, false));
+        }
+        return items;
+    }
+
+    private int ingredientKey(Ingredient ingredient) {
+        int id = ingredientDictionary.resolve(ingredient);
+        if (id != IngredientDictionary.UNKNOWN) {
+            return id;
+        }
+        String name = ingredient.getName() != null ? ingredient.getName().trim().toLowerCase(Locale.ROOT) : "";
+        return unknownNameKeys.computeIfAbsent(name, normalized -> -2 - unknownNameKeys.size());
+    }
+
+    private int unknownUnitKey(String unit) {
+        return unknownUnitKeys.computeIfAbsent(UnitConverter.normalize(unit),
+                normalized -> FIRST_UNKNOWN_UNIT_KEY + unknownUnitKeys.size());
+    }
+
+    private void ensureItemCapacity(int required) {
+        if (required <= quantities.length) {
+            return;
+        }
+        int capacity = quantities.length * 2;
+        quantities = Arrays.copyOf(quantities, capacity);
+        names = Arrays.copyOf(names, capacity);
+        firstUnits = Arrays.copyOf(firstUnits, capacity);
+        parsedUnits = Arrays.copyOf(parsedUnits, capacity);
+        mixedUnits = Arrays.copyOf(mixedUnits, capacity);
+    }
+
+    private void rehash() {
+        long[] oldTable = table;
+        int[] oldItems = tableItems;
+        table = new long[oldTable.length * 2];
+        Arrays.fill(table, EMPTY);
+        tableItems = new int[table.length];
+        int mask = table.length - 1;
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldTable[i] != EMPTY) {
+                int slot = Long.hashCode(oldTable[i] * 0x9E3779B97F4A7C15L) & mask;
+                while (table[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = oldTable[i];
+                tableItems[slot] = oldItems[i];
+            }
+        }
+    }
+}
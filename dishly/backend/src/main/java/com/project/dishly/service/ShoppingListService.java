@@ -1,5 +1,7 @@
 package com.project.dishly.service;
 
+import com.project.dishly.dto.request.CheckItemsRequest;
+import com.project.dishly.dto.request.ShoppingItemUpdateRequest;
 import com.project.dishly.dto.request.ShoppingListRequest;
 import com.project.dishly.dto.response.ShoppingListResponse;
 import com.project.dishly.exception.BadRequestException;
@@ -7,17 +9,20 @@ import com.project.dishly.exception.ResourceNotFoundException;
 import com.project.dishly.exception.UnauthorizedException;
 import com.project.dishly.model.Ingredient;
 import com.project.dishly.model.Recipe;
-import com.project.dishly.model.ShoppingItem;
 import com.project.dishly.model.ShoppingList;
 import com.project.dishly.repository.RecipeRepository;
 import com.project.dishly.repository.ShoppingListRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -27,56 +32,73 @@ import java.util.stream.Collectors;
 @Service
 public class ShoppingListService {
     
+    private static final int MAX_TOGGLE_ATTEMPTS = 3;
+    
+    private static final String CONCURRENT_MODIFICATION = "Shopping list was modified concurrently, please retry";
+    
     @Autowired
     private ShoppingListRepository shoppingListRepository;
     
     @Autowired
     private RecipeRepository recipeRepository;
     
+    @Autowired
+    private IngredientDictionary ingredientDictionary;
+    
     /**
      * Generate a shopping list from selected recipes.
-     * Aggregates ingredients from multiple recipes, combining duplicates.
+     * Aggregates ingredients from multiple recipes, combining duplicates across convertible units.
+     * Each recipe's quantities are scaled by its multiplier in the request, if any.
      *
      * @param shoppingListRequest contains list name and recipe IDs
      * @param userId the authenticated user's ID
      * @return ShoppingListResponse with aggregated ingredients
-     * @throws BadRequestException if no recipes provided
+     * @throws BadRequestException if no recipes provided or a multiplier is not positive
      * @throws ResourceNotFoundException if any recipe not found
+     * @throws UnauthorizedException if any recipe is private and not owned by the user
      */
     public ShoppingListResponse generateShoppingList(ShoppingListRequest shoppingListRequest, String userId) {
         if (shoppingListRequest.getRecipeIds() == null || shoppingListRequest.getRecipeIds().isEmpty()) {
             throw new BadRequestException("At least one recipe is required to generate a shopping list");
         }
         
-        // Fetch all recipes
+        // Fetch all recipes in one round-trip, then check each requested ID
+        Map<String, Recipe> recipesById = new HashMap<>();
+        for (Recipe recipe : recipeRepository.findShoppingFieldsByIdIn(new LinkedHashSet<>(shoppingListRequest.getRecipeIds()))) {
+            recipesById.put(recipe.getId(), recipe);
+        }
+        
         List<Recipe> recipes = new ArrayList<>();
+        Set<String> missingIds = new LinkedHashSet<>();
+        Set<String> forbiddenIds = new LinkedHashSet<>();
         for (String recipeId : shoppingListRequest.getRecipeIds()) {
-            Recipe recipe = recipeRepository.findById(recipeId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Recipe not found: " + recipeId));
-            recipes.add(recipe);
+            Recipe recipe = recipesById.get(recipeId);
+            if (recipe == null) {
+                missingIds.add(recipeId);
+            } else if (!Boolean.TRUE.equals(recipe.getIsPublic()) && !userId.equals(recipe.getUserId())) {
+                forbiddenIds.add(recipeId);
+            } else {
+                recipes.add(recipe);
+            }
         }
         
-        // Aggregate ingredients from all recipes
-        Map<String, ShoppingItem> aggregatedItems = new HashMap<>();
+        if (!missingIds.isEmpty()) {
+            throw new ResourceNotFoundException("Recipes not found: " + String.join(", ", missingIds));
+        }
+        if (!forbiddenIds.isEmpty()) {
+            throw new UnauthorizedException("You don't have permission to use these recipes: " + String.join(", ", forbiddenIds));
+        }
         
+        // Aggregate ingredients by dictionary ID and unit dimension, so "500 g" and "1 kg" combine
+        int ingredientCount = recipes.stream()
+                .mapToInt(recipe -> recipe.getIngredients() != null ? recipe.getIngredients().size() : 0)
+                .sum();
+        ShoppingListAggregator aggregator = new ShoppingListAggregator(ingredientDictionary, ingredientCount);
         for (Recipe recipe : recipes) {
             if (recipe.getIngredients() != null) {
+                double factor = multiplier(shoppingListRequest, recipe.getId());
                 for (Ingredient ingredient : recipe.getIngredients()) {
-                    String key = ingredient.getName() + "_" + ingredient.getUnit();
-                    
-                    if (aggregatedItems.containsKey(key)) {
-                        // Combine quantities
-                        ShoppingItem existingItem = aggregatedItems.get(key);
-                        existingItem.setQuantity(existingItem.getQuantity() + ingredient.getQuantity());
-                    } else {
-                        // Create new item
-                        ShoppingItem newItem = new ShoppingItem();
-                        newItem.setIngredientName(ingredient.getName());
-                        newItem.setQuantity(ingredient.getQuantity());
-                        newItem.setUnit(ingredient.getUnit());
-                        newItem.setIsChecked(false);
-                        aggregatedItems.put(key, newItem);
-                    }
+                    aggregator.add(ingredient, factor);
                 }
             }
         }
@@ -85,12 +107,34 @@ public class ShoppingListService {
         ShoppingList shoppingList = new ShoppingList();
         shoppingList.setUserId(userId);
         shoppingList.setName(shoppingListRequest.getName());
-        shoppingList.setItems(new ArrayList<>(aggregatedItems.values()));
+        shoppingList.setItems(aggregator.items());
         
         ShoppingList savedList = shoppingListRepository.save(shoppingList);
         return mapToShoppingListResponse(savedList);
     }
     
+    /**
+     * Get the servings multiplier requested for a recipe.
+     *
+     * @param shoppingListRequest the request
+     * @param recipeId the recipe ID
+     * @return the multiplier (1.0 if none was given)
+     * @throws BadRequestException if the multiplier is not positive
+     */
+    private double multiplier(ShoppingListRequest shoppingListRequest, String recipeId) {
+        if (shoppingListRequest.getMultipliers() == null) {
+            return 1.0;
+        }
+        Double multiplier = shoppingListRequest.getMultipliers().get(recipeId);
+        if (multiplier == null) {
+            return 1.0;
+        }
+        if (multiplier <= 0 || multiplier.isInfinite() || multiplier.isNaN()) {
+            throw new BadRequestException("Servings multiplier must be positive for recipe: " + recipeId);
+        }
+        return multiplier;
+    }
+    
     /**
      * Get all shopping lists for the authenticated user.
      *
@@ -107,7 +151,8 @@ public class ShoppingListService {
     
     /**
      * Toggle the checked status of a shopping list item.
-     * Verifies ownership of the shopping list.
+     * Flips only items.&lt;index&gt;.isChecked with a compare-and-set update, so concurrent
+     * toggles from several devices are neither lost nor overwrite other items.
      *
      * @param listId the shopping list ID
      * @param itemIndex the index of the item to toggle
@@ -118,22 +163,127 @@ public class ShoppingListService {
      * @throws BadRequestException if item index is invalid
      */
     public ShoppingListResponse toggleItemChecked(String listId, int itemIndex, String userId) {
+        checkItemIndex(itemIndex);
+        String path = "items." + itemIndex + ".isChecked";
+        
+        for (int attempt = 0; attempt < MAX_TOGGLE_ATTEMPTS; attempt++) {
+            // Set to true if currently unchecked, otherwise to false if currently checked
+            ShoppingList updatedList = shoppingListRepository.updateOwnedList(listId, userId,
+                    itemExists(itemIndex).and(path).ne(true), new Update().set(path, true));
+            if (updatedList == null) {
+                updatedList = shoppingListRepository.updateOwnedList(listId, userId,
+                        itemExists(itemIndex).and(path).is(true), new Update().set(path, false));
+            }
+            if (updatedList != null) {
+                return mapToShoppingListResponse(updatedList);
+            }
+            // Either the list or item is not there, or another device toggled in between
+            checkListAccess(listId, itemIndex, userId, "You can only modify your own shopping lists");
+        }
+        throw new BadRequestException(CONCURRENT_MODIFICATION);
+    }
+    
+    /**
+     * Update a shopping list item's checked status and/or quantity.
+     * Only the provided fields are written, with a positional $set on the item.
+     *
+     * @param listId the shopping list ID
+     * @param itemIndex the index of the item to update
+     * @param updateRequest the fields to change
+     * @param userId the authenticated user's ID
+     * @return ShoppingListResponse with updated list
+     * @throws ResourceNotFoundException if list not found
+     * @throws UnauthorizedException if user is not the owner
+     * @throws BadRequestException if item index is invalid or no field is given
+     */
+    public ShoppingListResponse updateItem(String listId, int itemIndex, ShoppingItemUpdateRequest updateRequest, String userId) {
+        checkItemIndex(itemIndex);
+        
+        Update update = new Update();
+        if (updateRequest.getIsChecked() != null) {
+            update.set("items." + itemIndex + ".isChecked", updateRequest.getIsChecked());
+        }
+        if (updateRequest.getQuantity() != null) {
+            update.set("items." + itemIndex + ".quantity", updateRequest.getQuantity());
+        }
+        if (update.getUpdateObject().isEmpty()) {
+            throw new BadRequestException("Nothing to update");
+        }
+        
+        ShoppingList updatedList = shoppingListRepository.updateOwnedList(listId, userId, itemExists(itemIndex), update);
+        if (updatedList == null) {
+            checkListAccess(listId, itemIndex, userId, "You can only modify your own shopping lists");
+            throw new BadRequestException(CONCURRENT_MODIFICATION);
+        }
+        return mapToShoppingListResponse(updatedList);
+    }
+    
+    /**
+     * Check or uncheck several shopping list items in one write.
+     *
+     * @param listId the shopping list ID
+     * @param checkItemsRequest item indexes and the checked status to set
+     * @param userId the authenticated user's ID
+     * @return ShoppingListResponse with updated list
+     * @throws ResourceNotFoundException if list not found
+     * @throws UnauthorizedException if user is not the owner
+     * @throws BadRequestException if any item index is invalid
+     */
+    public ShoppingListResponse checkItems(String listId, CheckItemsRequest checkItemsRequest, String userId) {
+        Update update = new Update();
+        int maxIndex = -1;
+        for (Integer itemIndex : checkItemsRequest.getItemIndexes()) {
+            if (itemIndex == null) {
+                throw new BadRequestException("Invalid item index");
+            }
+            checkItemIndex(itemIndex);
+            update.set("items." + itemIndex + ".isChecked", checkItemsRequest.getIsChecked());
+            maxIndex = Math.max(maxIndex, itemIndex);
+        }
+        
+        // If the highest index exists, all lower ones do too
+        ShoppingList updatedList = shoppingListRepository.updateOwnedList(listId, userId, itemExists(maxIndex), update);
+        if (updatedList == null) {
+            checkListAccess(listId, maxIndex, userId, "You can only modify your own shopping lists");
+            throw new BadRequestException(CONCURRENT_MODIFICATION);
+        }
+        return mapToShoppingListResponse(updatedList);
+    }
+    
+    /**
+     * Explain why a conditional update matched no shopping list.
+     * Returns normally only if the list exists, is owned by the user and has the item, which
+     * means the update lost a race with a concurrent change.
+     *
+     * @param listId the shopping list ID
+     * @param itemIndex the item index the update required
+     * @param userId the authenticated user's ID
+     * @param message message for the ownership failure
+     * @throws ResourceNotFoundException if list not found
+     * @throws UnauthorizedException if user is not the owner
+     * @throws BadRequestException if the item index is out of range
+     */
+    private void checkListAccess(String listId, int itemIndex, String userId, String message) {
         ShoppingList shoppingList = shoppingListRepository.findById(listId)
                 .orElseThrow(() -> new ResourceNotFoundException("Shopping list not found"));
         
         if (!shoppingList.getUserId().equals(userId)) {
-            throw new UnauthorizedException("You can only modify your own shopping lists");
+            throw new UnauthorizedException(message);
         }
         
-        if (itemIndex < 0 || itemIndex >= shoppingList.getItems().size()) {
+        if (shoppingList.getItems() == null || itemIndex >= shoppingList.getItems().size()) {
             throw new BadRequestException("Invalid item index");
         }
-        
-        ShoppingItem item = shoppingList.getItems().get(itemIndex);
-        item.setIsChecked(!item.getIsChecked());
-        
-        ShoppingList updatedList = shoppingListRepository.save(shoppingList);
-        return mapToShoppingListResponse(updatedList);
+    }
+    
+    private static void checkItemIndex(int itemIndex) {
+        if (itemIndex < 0) {
+            throw new BadRequestException("Invalid item index");
+        }
+    }
+    
+    private static Criteria itemExists(int itemIndex) {
+        return Criteria.where("items." + itemIndex).exists(true);
     }
     
     /**
@@ -0,0 +1,278 @@
+package com.project.dishly.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Read-through cache with request coalescing and stale-while-revalidate.
+ *
+ * - Concurrent misses for a key share one load: the first caller runs the loader, the others
+ *   wait for its result (or its exception).
+ * - An entry older than the soft TTL is still served, while a single background load
+ *   refreshes it. An entry older than the hard TTL is dropped and the next read loads it.
+ * - Invalidation drops the entry and discards loads already in flight for the key, so a load
+ *   that read the database before a write never stores its result.
+ * - An optional store listener sees each loaded value just before it is stored, and only if
+ *   it is stored, so index structures built from it (e.g. tags) never outlive a discarded load.
+ *
+ * Requests are counted in dishly.cache.requests, tagged with the cache name and a result of
+ * hit, miss, coalesced or stale.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class SingleFlightCache<K, V> {
+    
+    private static final Logger log = LoggerFactory.getLogger(SingleFlightCache.class);
+    
+    /**
+     * Background refreshes for all caches. Bounded with no queue: when every thread is busy a
+     * refresh is skipped and the stale value is served until a later read retries it.
+     */
+    private static final Executor REFRESH_EXECUTOR = refreshExecutor(4);
+    
+    private final String name;
+    
+    private final long softTtlNanos;
+    
+    private final Cache<K, Entry<V>> entries;
+    
+    private final Map<K, Load<V>> loads = new ConcurrentHashMap<>();
+    
+    private final BiConsumer<K, V> storeListener;
+    
+    private final Counter hits;
+    
+    private final Counter misses;
+    
+    private final Counter coalesced;
+    
+    private final Counter staleServes;
+    
+    private final Counter refreshFailures;
+    
+    /**
+     * Create a cache.
+     *
+     * @param name cache name, used as the metrics tag
+     * @param maxSize maximum number of entries (W-TinyLFU eviction)
+     * @param softTtl age after which an entry is served stale and refreshed in the background
+     * @param hardTtl age after which an entry is no longer served
+     * @param meterRegistry registry for the request counters
+     * @param removalListener called with the key and old value when an entry is removed or
+     *                        replaced, or null for none
+     * @param storeListener called with the key and loaded value just before it is stored, or
+     *                      null for none; an invalidation that finds the entry also finds
+     *                      whatever the listener recorded
+     */
+    public SingleFlightCache(String name, long maxSize, Duration softTtl, Duration hardTtl,
+                             MeterRegistry meterRegistry, BiConsumer<K, V> removalListener,
+                             BiConsumer<K, V> storeListener) {
+        this.name = name;
+        this.softTtlNanos = softTtl.toNanos();
+        this.storeListener = storeListener;
+        
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(hardTtl)
+                .executor(Runnable::run);
+        if (removalListener != null) {
+            builder.removalListener((K key, Entry<V> entry, RemovalCause cause) -> {
+                if (key != null && entry != null) {
+                    removalListener.accept(key, entry.value());
+                }
+            });
+        }
+        this.entries = builder.build();
+        
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.coalesced = requestCounter(meterRegistry, "coalesced");
+        this.staleServes = requestCounter(meterRegistry, "stale");
+        this.refreshFailures = Counter.builder("dishly.cache.refresh.failures")
+                .description("Background refreshes that failed, leaving the stale value in place")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Get a value, loading it on a miss and refreshing it in the background once stale.
+     *
+     * @param key the key
+     * @param loader loads the value for a key; its exceptions reach every coalesced caller
+     * @return the value
+     */
+    public V get(K key, Function<K, V> loader) {
+        Entry<V> entry = entries.getIfPresent(key);
+        if (entry != null) {
+            if (System.nanoTime() - entry.loadedAt() < softTtlNanos) {
+                hits.increment();
+            } else {
+                staleServes.increment();
+                refresh(key, loader);
+            }
+            return entry.value();
+        }
+        
+        Load<V> load = new Load<>();
+        Load<V> running = loads.putIfAbsent(key, load);
+        if (running != null) {
+            coalesced.increment();
+            V value = await(running);
+            // Null only from a refresh that could not be scheduled: load it here instead
+            return value != null ? value : get(key, loader);
+        }
+        misses.increment();
+        return run(key, load, loader);
+    }
+    
+    /**
+     * Get a value only if it is cached, however stale.
+     *
+     * @param key the key
+     * @return the cached value, or null
+     */
+    public V peek(K key) {
+        Entry<V> entry = entries.getIfPresent(key);
+        return entry != null ? entry.value() : null;
+    }
+    
+    /**
+     * Drop a key and discard any load in flight for it.
+     *
+     * @param key the key
+     */
+    public void invalidate(K key) {
+        Load<V> load = loads.get(key);
+        if (load != null) {
+            load.discarded = true;
+        }
+        entries.invalidate(key);
+    }
+    
+    /**
+     * Drop every entry and discard every load in flight.
+     */
+    public void invalidateAll() {
+        discardLoadsInFlight();
+        entries.invalidateAll();
+    }
+    
+    /**
+     * Discard every load in flight without touching cached entries, for writes whose affected
+     * keys are only known once loaded. Callers waiting on those loads still get their result.
+     */
+    public void discardLoadsInFlight() {
+        loads.values().forEach(load -> load.discarded = true);
+    }
+    
+    private void refresh(K key, Function<K, V> loader) {
+        Load<V> load = new Load<>();
+        if (loads.putIfAbsent(key, load) != null) {
+            // Already being loaded or refreshed
+            return;
+        }
+        try {
+            REFRESH_EXECUTOR.execute(() -> {
+                try {
+                    run(key, load, loader);
+                } catch (RuntimeException ex) {
+                    refreshFailures.increment();
+                    log.warn("Background refresh of {} cache entry {} failed", name, key, ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            loads.remove(key, load);
+            load.complete(null);
+        }
+    }
+    
+    private V run(K key, Load<V> load, Function<K, V> loader) {
+        try {
+            V value = loader.apply(key);
+            if (value != null && !load.discarded) {
+                if (storeListener != null) {
+                    storeListener.accept(key, value);
+                }
+                entries.put(key, new Entry<>(value, System.nanoTime()));
+                // An invalidation that started during the put may have missed the new entry;
+                // invalidating it here also runs the removal listener for the stored value
+                if (load.discarded) {
+                    entries.invalidate(key);
+                }
+            }
+            load.complete(value);
+            return value;
+        } catch (Throwable ex) {
+            // Errors too: waiters must never be left blocked on a load that will not complete
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+    
+    private static <V> V await(Load<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+    
+    private Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("dishly.cache.requests")
+                .description("Cache reads by result: hit, miss, coalesced onto a running load, or stale")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    private static Executor refreshExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(0, threads, 30, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * A cached value and when it was loaded (System.nanoTime).
+     */
+    private record Entry<V>(V value, long loadedAt) {
+    }
+    
+    /**
+     * A load in flight; callers for the same key wait on it.
+     */
+    private static class Load<V> extends CompletableFuture<V> {
+        
+        private volatile boolean discarded = false;
+    }
+}
@@ -0,0 +1,195 @@
+package com.project.dishly.service;
+
+import com.project.dishly.model.Recipe;
+import com.project.dishly.repository.RecipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory leaderboard of the most liked public recipes.
+ * Holds at most {@code capacity} entries ordered by like count and is kept up to date
+ * incrementally by RecipeService, so trending lookups never scan the recipes collection.
+ *
+ * Invariant: every recipe on the board has at least as many likes as any public recipe
+ * that is not on it. {@code floor} is an upper bound on the like count of recipes outside
+ * the board; entries that fall below it are dropped, and the board is re-seeded from
+ * MongoDB when too few provable entries remain.
+ */
+@Component
+public class TrendingLeaderboard {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingLeaderboard.class);
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingInt(Entry::likeCount).reversed()
+            .thenComparing(Entry::recipeId);
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Value("${trending.leaderboard.capacity:50}")
+    private int capacity;
+
+    private final TreeSet<Entry> ranking = new TreeSet<>(RANKING);
+
+    // Guards the board; a lock rather than synchronized, since rebuild queries MongoDB while
+    // holding it and a virtual thread must not stay pinned to its carrier meanwhile
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private int floor = 0;
+
+    private boolean complete = false;
+
+    private boolean built = false;
+
+    /**
+     * Seed the leaderboard once the application has started.
+     * A failure here is not fatal; the board is rebuilt lazily on first use.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            log.warn("Could not build trending leaderboard at startup, will retry on first request", ex);
+        }
+    }
+
+    /**
+     * Rebuild after this node may have missed recipe changes.
+     */
+    @EventListener(LocalStateResyncEvent.class)
+    public void onResync() {
+        onApplicationReady();
+    }
+
+    /**
+     * Rebuild the leaderboard from an indexed, projected query on (isPublic, likeCount).
+     */
+    public void rebuild() {
+        lock.lock();
+        try {
+            List<Recipe> top = recipeRepository.findPublicLikeCounts(
+                    PageRequest.of(0, capacity, Sort.by(Sort.Direction.DESC, "likeCount")));
+
+            ranking.clear();
+            entries.clear();
+            for (Recipe recipe : top) {
+                put(new Entry(recipe.getId(), recipe.getLikeCount() != null ? recipe.getLikeCount() : 0));
+            }
+
+            // A short result means every public recipe is on the board
+            complete = top.size() < capacity;
+            floor = complete || ranking.isEmpty() ? 0 : ranking.last().likeCount();
+            built = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the IDs of the most liked public recipes, most liked first.
+     *
+     * @param limit the number of recipe IDs to return
+     * @return list of recipe IDs
+     */
+    public List<String> top(int limit) {
+        lock.lock();
+        try {
+            if (!built || (!complete && entries.size() < limit)) {
+                rebuild();
+            }
+
+            List<String> ids = new ArrayList<>(Math.min(limit, entries.size()));
+            for (Entry entry : ranking) {
+                if (ids.size() >= limit) {
+                    break;
+                }
+                ids.add(entry.recipeId());
+            }
+            return ids;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record the current like count and visibility of a recipe.
+     *
+     * @param recipeId the recipe ID
+     * @param likeCount the recipe's like count after the change
+     * @param isPublic whether the recipe is public
+     */
+    public void update(String recipeId, int likeCount, boolean isPublic) {
+        lock.lock();
+        try {
+            removeEntry(recipeId);
+
+            if (!isPublic) {
+                return;
+            }
+
+            // A recipe below the floor cannot be proven to outrank recipes outside the board
+            if (!complete && likeCount < floor) {
+                return;
+            }
+
+            put(new Entry(recipeId, likeCount));
+
+            while (entries.size() > capacity) {
+                Entry evicted = ranking.pollLast();
+                entries.remove(evicted.recipeId());
+                floor = complete ? evicted.likeCount() : Math.max(floor, evicted.likeCount());
+                complete = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove a recipe from the leaderboard (deleted or made private).
+     *
+     * @param recipeId the recipe ID
+     */
+    public void remove(String recipeId) {
+        lock.lock();
+        try {
+            removeEntry(recipeId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(Entry entry) {
+        entries.put(entry.recipeId(), entry);
+        ranking.add(entry);
+    }
+
+    private void removeEntry(String recipeId) {
+        Entry existing = entries.remove(recipeId);
+        if (existing != null) {
+            ranking.remove(existing);
+        }
+    }
+
+    private record Entry(String recipeId, int likeCount) {
+    }
+}
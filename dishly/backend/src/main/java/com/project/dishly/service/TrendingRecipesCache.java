@@ -0,0 +1,79 @@
+package com.project.dishly.service;
+
+import com.project.dishly.dto.response.RecipeListResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cache of the most liked recipe cards, keyed by list length.
+ *
+ * Every home page view asks for the same list, so it is loaded once and shared. Like counts
+ * change the ranking constantly, so counter writes do not evict it: the list refreshes in the
+ * background once past the soft TTL. Other writes (edits, visibility, deletes) can change a
+ * card or remove it from the list, so they drop it.
+ */
+@Component
+public class TrendingRecipesCache {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${trending.cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${trending.cache.soft-ttl-seconds:5}")
+    private long softTtlSeconds;
+    
+    @Value("${trending.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+    
+    private SingleFlightCache<Integer, List<RecipeListResponse>> lists;
+    
+    @PostConstruct
+    public void init() {
+        lists = new SingleFlightCache<>("trending", 16, Duration.ofSeconds(softTtlSeconds),
+                Duration.ofSeconds(ttlSeconds), meterRegistry, null, null);
+    }
+    
+    /**
+     * Get the most liked recipe cards, loading them on a miss (or on every call when disabled).
+     *
+     * @param limit the number of recipes
+     * @param loader loads the list for a limit
+     * @return cards as seen by an anonymous viewer; shared, so callers must not modify them
+     */
+    public List<RecipeListResponse> get(int limit, Function<Integer, List<RecipeListResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(limit);
+        }
+        return lists.get(limit, loader);
+    }
+    
+    /**
+     * Drop cached lists on any recipe write other than a counter change.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.type() != RecipeChangedEvent.ChangeType.COUNTERS) {
+            lists.invalidateAll();
+        }
+    }
+    
+    /**
+     * Drop cached lists when this node may have missed recipe changes.
+     */
+    @EventListener(LocalStateResyncEvent.class)
+    public void onResync() {
+        lists.invalidateAll();
+    }
+}
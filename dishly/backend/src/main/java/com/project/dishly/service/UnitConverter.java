@@ -0,0 +1,191 @@
+package com.project.dishly.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Recipe unit conversion.
+ * Units are declared as a graph of conversions ("1 cup = 16 tbsp", "1 tbsp = 3 tsp") and every
+ * unit's factor to its dimension's base unit (grams, millilitres, pieces) is derived once by a
+ * breadth-first walk from the base, so adding a unit only needs one edge to any known unit.
+ */
+public final class UnitConverter {
+
+    /**
+     * Physical dimension of a unit, with the base unit quantities are normalized to.
+     */
+    public enum Dimension {
+        MASS("g"),
+        VOLUME("ml"),
+        COUNT("piece");
+
+        private final String baseSymbol;
+
+        Dimension(String baseSymbol) {
+            this.baseSymbol = baseSymbol;
+        }
+
+        public String getBaseSymbol() {
+            return baseSymbol;
+        }
+    }
+
+    /**
+     * A known unit.
+     *
+     * @param symbol canonical symbol
+     * @param dimension the unit's dimension
+     * @param toBase how many base units one of this unit is
+     */
+    public record Unit(String symbol, Dimension dimension, double toBase) {
+    }
+
+    /** alias -> unit */
+    private static final Map<String, Unit> UNITS = new HashMap<>();
+
+    static {
+        Map<String, Dimension> dimensions = new HashMap<>();
+        Map<String, List<String>> aliases = new HashMap<>();
+        List<Object[]> edges = new ArrayList<>();
+
+        declare(dimensions, aliases, Dimension.MASS, "g", "gram", "grams", "gr", "grm");
+        declare(dimensions, aliases, Dimension.MASS, "kg", "kilogram", "kilograms", "kilo", "kilos", "kgs");
+        declare(dimensions, aliases, Dimension.MASS, "mg", "milligram", "milligrams");
+        declare(dimensions, aliases, Dimension.MASS, "oz", "ounce", "ounces");
+        declare(dimensions, aliases, Dimension.MASS, "lb", "lbs", "pound", "pounds");
+        edges.add(new Object[] {"kg", "g", 1000.0});
+        edges.add(new Object[] {"g", "mg", 1000.0});
+        edges.add(new Object[] {"lb", "oz", 16.0});
+        edges.add(new Object[] {"oz", "g", 28.349523125});
+
+        declare(dimensions, aliases, Dimension.VOLUME, "ml", "milliliter", "milliliters", "millilitre", "millilitres", "mls");
+        declare(dimensions, aliases, Dimension.VOLUME, "l", "liter", "liters", "litre", "litres", "ltr");
+        declare(dimensions, aliases, Dimension.VOLUME, "dl", "deciliter", "deciliters", "decilitre", "decilitres");
+        declare(dimensions, aliases, Dimension.VOLUME, "tsp", "teaspoon", "teaspoons", "tsps");
+        declare(dimensions, aliases, Dimension.VOLUME, "tbsp", "tablespoon", "tablespoons", "tbsps", "tbs", "tbl");
+        declare(dimensions, aliases, Dimension.VOLUME, "fl oz", "fluid ounce", "fluid ounces", "floz");
+        declare(dimensions, aliases, Dimension.VOLUME, "cup", "cups");
+        declare(dimensions, aliases, Dimension.VOLUME, "pint", "pints", "pt");
+        declare(dimensions, aliases, Dimension.VOLUME, "quart", "quarts", "qt");
+        declare(dimensions, aliases, Dimension.VOLUME, "gallon", "gallons", "gal");
+        edges.add(new Object[] {"l", "ml", 1000.0});
+        edges.add(new Object[] {"dl", "ml", 100.0});
+        edges.add(new Object[] {"tsp", "ml", 4.92892159375});
+        edges.add(new Object[] {"tbsp", "tsp", 3.0});
+        edges.add(new Object[] {"fl oz", "tbsp", 2.0});
+        edges.add(new Object[] {"cup", "tbsp", 16.0});
+        edges.add(new Object[] {"pint", "cup", 2.0});
+        edges.add(new Object[] {"quart", "pint", 2.0});
+        edges.add(new Object[] {"gallon", "quart", 4.0});
+
+        declare(dimensions, aliases, Dimension.COUNT, "piece", "pieces", "pc", "pcs", "whole", "each", "ea", "unit", "units", "");
+        declare(dimensions, aliases, Dimension.COUNT, "dozen", "doz");
+        declare(dimensions, aliases, Dimension.COUNT, "pair", "pairs");
+        edges.add(new Object[] {"dozen", "piece", 12.0});
+        edges.add(new Object[] {"pair", "piece", 2.0});
+
+        // Conversions work in both directions
+        Map<String, Map<String, Double>> graph = new HashMap<>();
+        for (Object[] edge : edges) {
+            String from = (String) edge[0];
+            String to = (String) edge[1];
+            double factor = (Double) edge[2];
+            graph.computeIfAbsent(from, unit -> new HashMap<>()).put(to, factor);
+            graph.computeIfAbsent(to, unit -> new HashMap<>()).put(from, 1.0 / factor);
+        }
+
+        for (Dimension dimension : Dimension.values()) {
+            Map<String, Double> toBase = new HashMap<>();
+            toBase.put(dimension.getBaseSymbol(), 1.0);
+            Deque<String> queue = new ArrayDeque<>();
+            queue.add(dimension.getBaseSymbol());
+            while (!queue.isEmpty()) {
+                String unit = queue.poll();
+                // 1 neighbour = (1 / factor) unit, where factor is "1 unit = factor neighbours"
+                for (Map.Entry<String, Double> neighbour : graph.getOrDefault(unit, Map.of()).entrySet()) {
+                    if (!toBase.containsKey(neighbour.getKey())) {
+                        toBase.put(neighbour.getKey(), toBase.get(unit) / neighbour.getValue());
+                        queue.add(neighbour.getKey());
+                    }
+                }
+            }
+
+            for (Map.Entry<String, Double> entry : toBase.entrySet()) {
+                if (dimensions.get(entry.getKey()) != dimension) {
+                    throw new IllegalStateException("Unit " + entry.getKey() + " is connected to " + dimension);
+                }
+                Unit unit = new Unit(entry.getKey(), dimension, entry.getValue());
+                for (String alias : aliases.get(entry.getKey())) {
+                    UNITS.put(alias, unit);
+                }
+            }
+        }
+
+        for (String symbol : dimensions.keySet()) {
+            if (!UNITS.containsKey(symbol)) {
+                throw new IllegalStateException("Unit " + symbol + " has no conversion to its base unit");
+            }
+        }
+    }
+
+    private UnitConverter() {
+    }
+
+    /**
+     * Parse a free-text unit.
+     *
+     * @param unit the unit as written in a recipe (null or blank means a plain count)
+     * @return the unit, or null if it is not a known measurement (e.g. "clove", "pinch")
+     */
+    public static Unit parse(String unit) {
+        return UNITS.get(normalize(unit));
+    }
+
+    /**
+     * Normalize a unit for lookup or comparison: lower-case, trimmed, without a trailing period.
+     *
+     * @param unit the unit (may be null)
+     * @return normalized unit
+     */
+    public static String normalize(String unit) {
+        if (unit == null) {
+            return "";
+        }
+        String normalized = unit.trim().toLowerCase(Locale.ROOT);
+        if (normalized.endsWith(".")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized.replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Pick a readable unit for a merged quantity: kilograms and litres from 1000 base units up,
+     * otherwise the base unit.
+     *
+     * @param dimension the dimension
+     * @param baseQuantity the quantity in base units
+     * @return the display unit
+     */
+    public static Unit displayUnit(Dimension dimension, double baseQuantity) {
+        if (dimension == Dimension.MASS && baseQuantity >= 1000) {
+            return UNITS.get("kg");
+        }
+        if (dimension == Dimension.VOLUME && baseQuantity >= 1000) {
+            return UNITS.get("l");
+        }
+        return UNITS.get(dimension.getBaseSymbol());
+    }
+
+    private static void declare(Map<String, Dimension> dimensions, Map<String, List<String>> aliases,
+                                Dimension dimension, String symbol, String... otherAliases) {
+        dimensions.put(symbol, dimension);
+        List<String> all = new ArrayList<>(List.of(otherAliases));
+        all.add(symbol);
+        aliases.put(symbol, all);
+    }
+}
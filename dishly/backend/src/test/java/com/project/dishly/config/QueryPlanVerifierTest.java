@@ -0,0 +1,113 @@
+package com.project.dishly.config;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.project.dishly.repository.LikeRepository;
+import com.project.dishly.repository.RatingRepository;
+import com.project.dishly.repository.RecipeCollectionRepository;
+import com.project.dishly.repository.RecipeRepository;
+import com.project.dishly.repository.ShoppingListRepository;
+import com.project.dishly.repository.UserRepository;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryPlanVerifierTest {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(RecipeRepository.class, LikeRepository.class,
+            RatingRepository.class, UserRepository.class, RecipeCollectionRepository.class, ShoppingListRepository.class);
+
+    @Test
+    void everyRepositoryQueryMethodHasAPlannedQuery() {
+        // "RecipeRepository.findPublicSlice(category)" is a variant of findPublicSlice
+        Set<String> planned = QueryPlanVerifier.plannedQueries().stream()
+                .map(query -> query.name().replaceFirst("\\(.*\\)$", ""))
+                .collect(Collectors.toSet());
+
+        Set<String> missing = new TreeSet<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method method : queryMethods(repository)) {
+                String name = repository.getSimpleName() + "." + method.getName();
+                if (!planned.contains(name)) {
+                    missing.add(name);
+                }
+            }
+        }
+
+        assertThat(missing).isEmpty();
+    }
+
+    @Test
+    void reportsBlockingSortsOnlyForSortedQueries() {
+        List<String> sorted = new ArrayList<>();
+        for (QueryPlanVerifier.PlannedQuery query : QueryPlanVerifier.plannedQueries()) {
+            if (query.sort() != null) {
+                sorted.add(query.name() + " (SORT)");
+            }
+        }
+
+        // Every plan sorts in memory, so only the queries that ask for an order are reported
+        assertThat(verifyWithWinningPlan(new Document("stage", "SORT")
+                .append("inputStage", new Document("stage", "IXSCAN")))).containsExactlyElementsOf(sorted);
+        assertThat(sorted).isNotEmpty();
+    }
+
+    @Test
+    void reportsCollectionScans() {
+        List<String> unsupported = verifyWithWinningPlan(new Document("stage", "COLLSCAN"));
+
+        assertThat(unsupported).hasSize(QueryPlanVerifier.plannedQueries().size());
+        assertThat(unsupported).allMatch(name -> name.endsWith(" (COLLSCAN)"));
+    }
+
+    @Test
+    void acceptsIndexedPlans() {
+        assertThat(verifyWithWinningPlan(new Document("stage", "FETCH")
+                .append("inputStage", new Document("stage", "IXSCAN")))).isEmpty();
+    }
+
+    /**
+     * Methods declared on a repository and on its custom fragment interfaces.
+     */
+    private static List<Method> queryMethods(Class<?> repository) {
+        List<Method> methods = new ArrayList<>(List.of(repository.getDeclaredMethods()));
+        for (Class<?> fragment : repository.getInterfaces()) {
+            if (fragment.getPackage().equals(repository.getPackage())) {
+                methods.addAll(List.of(fragment.getDeclaredMethods()));
+            }
+        }
+        methods.removeIf(method -> method.isSynthetic() || Modifier.isStatic(method.getModifiers()));
+        return methods;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> verifyWithWinningPlan(Document winningPlan) {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        FindIterable<Document> find = mock(FindIterable.class, RETURNS_SELF);
+        when(mongoTemplate.getCollectionName(any())).thenReturn("collection");
+        when(mongoTemplate.getCollection("collection")).thenReturn(collection);
+        when(collection.find(any(Bson.class))).thenReturn(find);
+        when(find.explain()).thenReturn(new Document("queryPlanner", new Document("winningPlan", winningPlan)));
+
+        QueryPlanVerifier verifier = new QueryPlanVerifier();
+        ReflectionTestUtils.setField(verifier, "mongoTemplate", mongoTemplate);
+        return verifier.verify();
+    }
+}
@@ -0,0 +1,107 @@
+package com.project.dishly.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletionTrieTest {
+
+    private final CompletionTrie trie = new CompletionTrie();
+
+    @Test
+    void returnsTheHeaviestCompletionsUnderAPrefix() {
+        trie.add("pasta", "Pasta", 5);
+        trie.add("pad thai", "Pad thai", 9);
+        trie.add("pancake", "Pancake", 3);
+        trie.add("pizza", "Pizza", 7);
+
+        assertThat(trie.complete("pa", 2)).containsExactly(
+                new CompletionTrie.Completion("Pad thai", 9),
+                new CompletionTrie.Completion("Pasta", 5));
+    }
+
+    @Test
+    void matchesPrefixesEndingInsideAnEdge() {
+        trie.add("chocolate cake", "Chocolate cake", 2);
+        trie.add("chocolate chip", "Chocolate chip", 1);
+
+        assertThat(trie.complete("choc", 10)).extracting(CompletionTrie.Completion::text)
+                .containsExactly("Chocolate cake", "Chocolate chip");
+        assertThat(trie.complete("chocx", 10)).isEmpty();
+        assertThat(trie.complete("chocolate cakes", 10)).isEmpty();
+    }
+
+    @Test
+    void keepsKeysThatArePrefixesOfOtherKeys() {
+        trie.add("pie", "Pie", 2);
+        trie.add("pie crust", "Pie crust", 4);
+
+        assertThat(trie.complete("pie", 10)).extracting(CompletionTrie.Completion::text)
+                .containsExactly("Pie crust", "Pie");
+    }
+
+    @Test
+    void accumulatesWeightAndKeepsTheFirstDisplayText() {
+        trie.add("tomato", "Tomato", 2);
+        trie.add("tomato", "TOMATO", 3);
+
+        assertThat(trie.complete("tom", 1)).containsExactly(new CompletionTrie.Completion("Tomato", 5));
+        assertThat(trie.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removingAKeyRefreshesSubtreeMaxima() {
+        trie.add("pasta", "Pasta", 5);
+        trie.add("pastry", "Pastry", 8);
+        trie.add("pear", "Pear", 6);
+
+        trie.add("pastry", null, -8);
+
+        assertThat(trie.size()).isEqualTo(2);
+        assertThat(trie.complete("p", 1)).containsExactly(new CompletionTrie.Completion("Pear", 6));
+        assertThat(trie.complete("past", 10)).containsExactly(new CompletionTrie.Completion("Pasta", 5));
+
+        trie.add("missing", null, -1);
+        assertThat(trie.size()).isEqualTo(2);
+    }
+
+    @Test
+    void topKMatchesABruteForceScan() {
+        Random random = new Random(42);
+        Map<String, Long> weights = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder key = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                key.append((char) ('a' + random.nextInt(4)));
+            }
+            long delta = random.nextInt(10) - 3;
+            trie.add(key.toString(), key.toString(), delta);
+            weights.compute(key.toString(), (k, weight) -> {
+                long updated = (weight == null ? 0 : weight) + delta;
+                return updated > 0 ? updated : null;
+            });
+        }
+
+        assertThat(trie.size()).isEqualTo(weights.size());
+        for (String prefix : List.of("", "a", "ab", "bca", "dddd")) {
+            List<Long> expected = new ArrayList<>();
+            weights.forEach((key, weight) -> {
+                if (key.startsWith(prefix)) {
+                    expected.add(weight);
+                }
+            });
+            expected.sort(Comparator.reverseOrder());
+
+            assertThat(trie.complete(prefix, 5)).extracting(CompletionTrie.Completion::weight)
+                    .containsExactlyElementsOf(expected.subList(0, Math.min(5, expected.size())));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.project.dishly.search;
+
+import com.project.dishly.model.Ingredient;
+import com.project.dishly.model.Recipe;
+import com.project.dishly.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FuzzyRecipeIndexTest {
+
+    private FuzzyRecipeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        when(recipeRepository.streamPublicSearchFields()).thenAnswer(invocation -> Stream.of(
+                recipe("r1", "Fried rice", "corn"),
+                recipe("r2", "Tomato soup", "onion")));
+        index = new FuzzyRecipeIndex();
+        ReflectionTestUtils.setField(index, "recipeRepository", recipeRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.rebuild();
+    }
+
+    @Test
+    void transposedLettersInShortWordsStillMatch() {
+        assertThat(index.search("rcie", null, 0, 10).recipeIds()).containsExactly("r1");
+        assertThat(index.search("ocrn", null, 0, 10).recipeIds()).containsExactly("r1");
+    }
+
+    @Test
+    void toleratesTwoEditsInLongerWords() {
+        assertThat(index.search("tomatoe sopu", null, 0, 10).recipeIds()).containsExactly("r2");
+    }
+
+    @Test
+    void wordsBeyondTheEditBoundDoNotMatch() {
+        assertThat(index.search("rack", null, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void countsAnAdjacentTranspositionAsOneEdit() {
+        assertThat(FuzzyRecipeIndex.boundedDistance("rcie", "rice", 1)).isEqualTo(1);
+        assertThat(FuzzyRecipeIndex.boundedDistance("rcie", "ice", 1)).isEqualTo(2);
+    }
+
+    private static Recipe recipe(String id, String title, String ingredient) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setTitle(title);
+        recipe.setIsPublic(true);
+        recipe.setIngredients(List.of(new Ingredient(ingredient, 1.0, null, 1, ingredient)));
+        recipe.setCategories(List.of("Dinner"));
+        return recipe;
+    }
+}
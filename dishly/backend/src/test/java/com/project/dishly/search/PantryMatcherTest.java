@@ -0,0 +1,92 @@
+package com.project.dishly.search;
+
+import com.project.dishly.model.Ingredient;
+import com.project.dishly.model.Recipe;
+import com.project.dishly.repository.RecipeRepository;
+import com.project.dishly.service.IngredientDictionary;
+import com.project.dishly.service.RecipeChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PantryMatcherTest {
+
+    private final List<Recipe> stored = new ArrayList<>();
+
+    private PantryMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        IngredientDictionary dictionary = new IngredientDictionary();
+        ReflectionTestUtils.setField(dictionary, "synonymsResource", "ingredient-synonyms.txt");
+        dictionary.loadSynonyms();
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        when(recipeRepository.streamPublicSearchFields()).thenAnswer(invocation -> stored.stream());
+
+        matcher = new PantryMatcher();
+        ReflectionTestUtils.setField(matcher, "recipeRepository", recipeRepository);
+        ReflectionTestUtils.setField(matcher, "ingredientDictionary", dictionary);
+    }
+
+    @Test
+    void ranksFewestMissingFirstThenMostPantryIngredientsUsed() {
+        build(recipe("r1", true, "Eggs", "Flour", "Milk"),
+                recipe("r2", true, "Egg", "Flour"),
+                recipe("r3", true, "Egg", "Bacon", "Cheese", "Cream"),
+                recipe("r4", true, "Egg", "Flour", "Sugar"));
+
+        PantryMatcher.PantryMatches matches = matcher.match(List.of("eggs", "flour", "milk"), 1, 0, 10);
+
+        assertThat(matches.matches()).extracting(PantryMatcher.PantryMatch::recipeId).containsExactly("r1", "r2", "r4");
+        assertThat(matches.matches().get(2).missingIngredients()).containsExactly("sugar");
+        assertThat(matches.total()).isEqualTo(3);
+    }
+
+    @Test
+    void matchesPantryItemsBySynonym() {
+        build(recipe("r1", true, "Eggplant", "Garlic"));
+
+        assertThat(matcher.match(List.of("Aubergines", "garlic"), 0, 0, 10).matches())
+                .extracting(PantryMatcher.PantryMatch::recipeId).containsExactly("r1");
+        assertThat(matcher.match(List.of("unobtainium"), 5, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void reusesFreedOrdinalsWithoutStaleBits() {
+        build(recipe("r1", true, "Egg", "Flour"), recipe("r2", true, "Rice"));
+
+        Recipe madePrivate = recipe("r1", false, "Egg", "Flour");
+        matcher.onRecipeChanged(new RecipeChangedEvent("r1", RecipeChangedEvent.ChangeType.VISIBILITY, madePrivate));
+        matcher.onRecipeChanged(new RecipeChangedEvent("r3", RecipeChangedEvent.ChangeType.CREATED,
+                recipe("r3", true, "Rice", "Egg")));
+
+        // r3 took r1's ordinal, so the ordinal table did not grow
+        assertThat(ReflectionTestUtils.getField(matcher, "recipeIds")).asList().containsExactly("r3", "r2");
+        assertThat(matcher.match(List.of("flour"), 1, 0, 10).total()).isZero();
+        assertThat(matcher.match(List.of("egg", "rice"), 0, 0, 10).matches())
+                .extracting(PantryMatcher.PantryMatch::recipeId).containsExactly("r3", "r2");
+    }
+
+    private void build(Recipe... recipes) {
+        stored.addAll(List.of(recipes));
+        matcher.rebuild();
+    }
+
+    private static Recipe recipe(String id, boolean isPublic, String... ingredients) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setIsPublic(isPublic);
+        recipe.setIngredients(Stream.of(ingredients)
+                .map(name -> new Ingredient(name, 1.0, null, 1, null))
+                .toList());
+        return recipe;
+    }
+}
@@ -0,0 +1,92 @@
+package com.project.dishly.search;
+
+import com.project.dishly.model.Recipe;
+import com.project.dishly.repository.RecipeRepository;
+import com.project.dishly.service.RecipeChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecipeSearchIndexTest {
+
+    // Hits with equal scores rank newest (highest ID) first, so each test expects the lower ID
+    // to win on score alone
+
+    @Test
+    void titleMatchesOutrankDescriptionMatches() {
+        RecipeSearchIndex index = index(
+                recipe("1", "Garlic bread", "Crusty and warm"),
+                recipe("2", "Warm bread", "Crusty with garlic"));
+
+        assertThat(index.search("garlic", null, 0, 10).recipeIds()).containsExactly("1", "2");
+    }
+
+    @Test
+    void rarerTermsWeighMore() {
+        RecipeSearchIndex index = index(
+                recipe("1", "Beef curry", null),
+                recipe("2", "Chicken soup", null),
+                recipe("3", "Chicken salad", null));
+
+        assertThat(index.search("chicken curry", null, 0, 10).recipeIds()).containsExactly("1", "3", "2");
+    }
+
+    @Test
+    void shorterRecipesRankHigherForTheSameMatch() {
+        RecipeSearchIndex index = index(
+                recipe("1", "Pasta", null),
+                recipe("2", "Pasta baked under tomato basil sauce", null));
+
+        assertThat(index.search("pasta", null, 0, 10).recipeIds()).containsExactly("1", "2");
+    }
+
+    @Test
+    void filtersByCategoryAndPages() {
+        Recipe dessert = recipe("1", "Lemon cake", null);
+        dessert.setCategories(List.of("Dessert"));
+        RecipeSearchIndex index = index(dessert, recipe("2", "Lemon chicken", null), recipe("3", "Lemon tart", null));
+
+        assertThat(index.search("lemon", "dess", 0, 10).recipeIds()).containsExactly("1");
+        SearchHits page = index.search("lemon", null, 1, 1);
+        assertThat(page.total()).isEqualTo(3);
+        assertThat(page.recipeIds()).hasSize(1);
+    }
+
+    @Test
+    void changeEventsUpdateTheIndex() {
+        RecipeSearchIndex index = index(recipe("1", "Tomato soup", null));
+
+        Recipe madePrivate = recipe("1", "Tomato soup", null);
+        madePrivate.setIsPublic(false);
+        index.onRecipeChanged(new RecipeChangedEvent("1", RecipeChangedEvent.ChangeType.VISIBILITY, madePrivate));
+        index.onRecipeChanged(new RecipeChangedEvent("2", RecipeChangedEvent.ChangeType.CREATED,
+                recipe("2", "Tomato salad", null)));
+
+        assertThat(index.search("tomato", null, 0, 10).recipeIds()).containsExactly("2");
+    }
+
+    private static RecipeSearchIndex index(Recipe... recipes) {
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        when(recipeRepository.streamPublicSearchFields()).thenAnswer(invocation -> Stream.of(recipes));
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        ReflectionTestUtils.setField(index, "recipeRepository", recipeRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.rebuild();
+        return index;
+    }
+
+    private static Recipe recipe(String id, String title, String description) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setTitle(title);
+        recipe.setDescription(description);
+        recipe.setIsPublic(true);
+        return recipe;
+    }
+}
@@ -0,0 +1,65 @@
+package com.project.dishly.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PrincipalCacheTest {
+
+    private static final String EMAIL = "cook@example.com";
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    private PrincipalCache cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = mock(UserDetailsServiceImpl.class);
+        cache = new PrincipalCache();
+        ReflectionTestUtils.setField(cache, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        cache.init();
+    }
+
+    @Test
+    void cachesLoadedPrincipals() {
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenAnswer(invocation -> user().build());
+
+        cache.getPrincipal(EMAIL);
+        cache.getPrincipal(EMAIL);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidationDuringLoadDropsTheLoadedPrincipal() {
+        when(userDetailsService.loadUserByUsername(EMAIL))
+                .thenAnswer(invocation -> {
+                    // The user is updated after the lookup read it
+                    User.UserBuilder stale = user();
+                    cache.invalidate(EMAIL);
+                    return stale.build();
+                })
+                .thenAnswer(invocation -> user().build());
+
+        cache.getPrincipal(EMAIL);
+        cache.getPrincipal(EMAIL);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private User.UserBuilder user() {
+        loads.incrementAndGet();
+        return User.withUsername(EMAIL).password("hash").authorities("ROLE_USER");
+    }
+}
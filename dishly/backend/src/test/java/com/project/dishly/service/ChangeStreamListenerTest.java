@@ -0,0 +1,202 @@
+package com.project.dishly.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import com.project.dishly.model.Recipe;
+import com.project.dishly.model.User;
+import com.project.dishly.security.PrincipalCache;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Timeout(10)
+class ChangeStreamListenerTest {
+
+    private static final BsonDocument SAVED_TOKEN = new BsonDocument("_data", new BsonString("8263"));
+
+    private final List<String> steps = new ArrayList<>();
+
+    private final List<Object> events = new ArrayList<>();
+
+    private MongoTemplate mongoTemplate;
+
+    private ChangeStreamIterable<Document> changes;
+
+    private ChangeStreamListener listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getCollectionName(Recipe.class)).thenReturn("recipes");
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+
+        MongoCollection<Document> tokens = mock(MongoCollection.class);
+        FindIterable<Document> savedTokens = mock(FindIterable.class);
+        when(mongoTemplate.getCollection("change_stream_tokens")).thenReturn(tokens);
+        when(tokens.find(any(Bson.class))).thenReturn(savedTokens);
+        when(savedTokens.first()).thenReturn(new Document("_id", "test").append("token", new Document("_data", "8263")));
+
+        MongoDatabase database = mock(MongoDatabase.class);
+        changes = mock(ChangeStreamIterable.class, RETURNS_SELF);
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(database.watch(anyList())).thenReturn(changes);
+
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        doAnswer(invocation -> {
+            Object event = invocation.getArgument(0);
+            events.add(event);
+            if (event instanceof LocalStateResyncEvent) {
+                steps.add("resync");
+            }
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+
+        listener = new ChangeStreamListener();
+        ReflectionTestUtils.setField(listener, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(listener, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(listener, "trendingLeaderboard", mock(TrendingLeaderboard.class));
+        ReflectionTestUtils.setField(listener, "principalCache", mock(PrincipalCache.class));
+        ReflectionTestUtils.setField(listener, "instanceId", "test");
+        ReflectionTestUtils.setField(listener, "tokenSaveIntervalMs", 1000L);
+        ReflectionTestUtils.setField(listener, "tokenTtlHours", 24L);
+        ReflectionTestUtils.setField(listener, "recipeCollection", "recipes");
+        ReflectionTestUtils.setField(listener, "userCollection", "users");
+        ReflectionTestUtils.setField(listener, "running", true);
+    }
+
+    @Test
+    void resumesAfterTheSavedToken() {
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = cursor();
+        when(changes.cursor()).thenReturn(cursor);
+
+        ReflectionTestUtils.invokeMethod(listener, "follow");
+
+        verify(changes).resumeAfter(SAVED_TOKEN);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void lostHistoryResyncsOnlyAfterTheNewStreamIsOpen() {
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = cursor();
+        when(changes.cursor())
+                .thenThrow(new MongoCommandException(new BsonDocument("ok", new BsonInt32(0))
+                        .append("code", new BsonInt32(286))
+                        .append("errmsg", new BsonString("history lost")), new ServerAddress()))
+                .thenAnswer(invocation -> {
+                    steps.add("open");
+                    return cursor;
+                });
+
+        ReflectionTestUtils.invokeMethod(listener, "follow");
+
+        assertThat(steps).containsExactly("open", "resync");
+    }
+
+    @Test
+    void invalidatedStreamResyncsAfterReopening() {
+        ChangeStreamDocument<Document> invalidate = change(OperationType.INVALIDATE, null);
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> first = cursor(invalidate);
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> second = cursor();
+        when(changes.cursor())
+                .thenAnswer(invocation -> {
+                    steps.add("open");
+                    return first;
+                })
+                .thenAnswer(invocation -> {
+                    steps.add("open");
+                    return second;
+                });
+
+        ReflectionTestUtils.invokeMethod(listener, "follow");
+
+        assertThat(steps).containsExactly("open", "open", "resync");
+    }
+
+    @Test
+    void classifiesRecipeUpdatesByChangedFields() {
+        MongoConverter converter = mock(MongoConverter.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(converter.read(eq(Recipe.class), any(Document.class))).thenReturn(new Recipe());
+
+        ReflectionTestUtils.invokeMethod(listener, "apply", change(OperationType.UPDATE, Map.of("likeCount", 3)));
+        ReflectionTestUtils.invokeMethod(listener, "apply", change(OperationType.UPDATE, Map.of("isPublic", false)));
+        ReflectionTestUtils.invokeMethod(listener, "apply", change(OperationType.UPDATE, Map.of("title", "Soup")));
+        ReflectionTestUtils.invokeMethod(listener, "apply", change(OperationType.INSERT, null));
+
+        assertThat(events).extracting(event -> ((RecipeChangedEvent) event).type()).containsExactly(
+                RecipeChangedEvent.ChangeType.COUNTERS,
+                RecipeChangedEvent.ChangeType.VISIBILITY,
+                RecipeChangedEvent.ChangeType.UPDATED,
+                RecipeChangedEvent.ChangeType.CREATED);
+    }
+
+    /**
+     * A cursor that returns the given changes, then stops the listener.
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor(ChangeStreamDocument<Document>... changes) {
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mock(MongoChangeStreamCursor.class);
+        List<ChangeStreamDocument<Document>> remaining = new ArrayList<>(List.of(changes));
+        when(cursor.tryNext()).thenAnswer(invocation -> {
+            if (remaining.isEmpty()) {
+                ReflectionTestUtils.setField(listener, "running", false);
+                return null;
+            }
+            return remaining.remove(0);
+        });
+        return cursor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamDocument<Document> change(OperationType operation, Map<String, Object> updatedFields) {
+        ChangeStreamDocument<Document> change = mock(ChangeStreamDocument.class);
+        when(change.getOperationType()).thenReturn(operation);
+        if (operation == OperationType.INVALIDATE) {
+            return change;
+        }
+        when(change.getNamespace()).thenReturn(new MongoNamespace("recipe_manager.recipes"));
+        when(change.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonObjectId(new ObjectId())));
+        when(change.getFullDocument()).thenReturn(new Document("title", "Soup"));
+        if (updatedFields != null) {
+            BsonDocument updated = new Document(updatedFields).toBsonDocument();
+            when(change.getUpdateDescription()).thenReturn(new UpdateDescription(List.of(), updated));
+        }
+        return change;
+    }
+}
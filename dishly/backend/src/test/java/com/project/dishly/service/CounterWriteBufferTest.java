@@ -0,0 +1,124 @@
+package com.project.dishly.service;
+
+import com.project.dishly.model.Recipe;
+import com.project.dishly.repository.RecipeRepository;
+import com.project.dishly.repository.RecipeRepositoryCustom.CounterDelta;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CounterWriteBufferTest {
+
+    private RecipeRepository recipeRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CounterWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        recipeRepository = mock(RecipeRepository.class);
+        when(recipeRepository.applyCounterDeltas(anyList())).thenReturn(List.of());
+        buffer = new CounterWriteBuffer();
+        ReflectionTestUtils.setField(buffer, "recipeRepository", recipeRepository);
+        ReflectionTestUtils.setField(buffer, "meterRegistry", meterRegistry);
+        buffer.registerMetrics();
+    }
+
+    @Test
+    void flushWritesSummedDeltasInOneBulkWrite() {
+        buffer.addLikes("r1", 1);
+        buffer.addLikes("r1", 1);
+        buffer.addRating("r1", 4.0, 1);
+        buffer.addLikes("r2", -1);
+
+        buffer.flush();
+
+        assertThat(flushed(1)).containsExactlyInAnyOrder(
+                new CounterDelta("r1", 2, 4.0, 1),
+                new CounterDelta("r2", -1, 0.0, 0));
+        assertThat(buffer.hasPending("r1")).isFalse();
+    }
+
+    @Test
+    void failedDeltasAreRetriedOnTheNextFlush() {
+        when(recipeRepository.applyCounterDeltas(anyList()))
+                .thenReturn(List.of(new CounterDelta("r1", 1, 0.0, 0)))
+                .thenReturn(List.of());
+        buffer.addLikes("r1", 1);
+
+        buffer.flush();
+        assertThat(buffer.hasPending("r1")).isTrue();
+        buffer.addLikes("r1", 1);
+        buffer.flush();
+
+        assertThat(flushed(2)).containsExactly(new CounterDelta("r1", 2, 0.0, 0));
+    }
+
+    @Test
+    void deltasWithAnUnknownOutcomeAreDroppedNotRetried() {
+        when(recipeRepository.applyCounterDeltas(anyList()))
+                .thenThrow(new QueryTimeoutException("socket timeout"))
+                .thenReturn(List.of());
+        buffer.addLikes("r1", 1);
+
+        buffer.flush();
+        assertThat(buffer.hasPending("r1")).isFalse();
+        buffer.addLikes("r1", 1);
+        buffer.flush();
+
+        assertThat(flushed(2)).containsExactly(new CounterDelta("r1", 1, 0.0, 0));
+        assertThat(meterRegistry.get("dishly.counters.flush.dropped").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void flushWithNothingPendingWritesNothing() {
+        buffer.addLikes("r1", 1);
+        buffer.addLikes("r1", -1);
+
+        buffer.flush();
+
+        verify(recipeRepository, never()).applyCounterDeltas(anyList());
+        assertThat(buffer.hasPending("r1")).isFalse();
+    }
+
+    @Test
+    void overlayAppliesPendingDeltasToAStoredRecipe() {
+        Recipe recipe = new Recipe();
+        recipe.setId("r1");
+        recipe.setLikeCount(3);
+        recipe.setRatingSum(8.0);
+        recipe.setRatingCount(2);
+        buffer.addLikes("r1", 1);
+        buffer.addRating("r1", 5.0, 1);
+
+        buffer.overlay(recipe);
+
+        assertThat(recipe.getLikeCount()).isEqualTo(4);
+        assertThat(recipe.getRatingCount()).isEqualTo(3);
+        assertThat(recipe.getAverageRating()).isEqualTo(13.0 / 3);
+    }
+
+    /**
+     * The deltas passed to the last of the given number of bulk writes.
+     */
+    @SuppressWarnings("unchecked")
+    private List<CounterDelta> flushed(int writes) {
+        ArgumentCaptor<List<CounterDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(recipeRepository, times(writes)).applyCounterDeltas(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,46 @@
+package com.project.dishly.service;
+
+import com.project.dishly.model.Ingredient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngredientDictionaryTest {
+
+    private IngredientDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new IngredientDictionary();
+        ReflectionTestUtils.setField(dictionary, "synonymsResource", "ingredient-synonyms.txt");
+        dictionary.loadSynonyms();
+    }
+
+    @Test
+    void singularizesRegularAndIePlurals() {
+        assertThat(IngredientDictionary.singularize("tomatoes")).isEqualTo("tomato");
+        assertThat(IngredientDictionary.singularize("cherries")).isEqualTo("cherry");
+        assertThat(IngredientDictionary.singularize("cookies")).isEqualTo("cookie");
+        assertThat(IngredientDictionary.singularize("brownies")).isEqualTo("brownie");
+        assertThat(IngredientDictionary.singularize("pies")).isEqualTo("pie");
+        assertThat(IngredientDictionary.singularize("molasses")).isEqualTo("molasses");
+    }
+
+    @Test
+    void foldsCasePluralsAndSynonyms() {
+        assertThat(dictionary.canonicalName("Scallions")).isEqualTo("green onion");
+        assertThat(dictionary.resolve("Cookies")).isEqualTo(dictionary.resolve("cookie"));
+        assertThat(dictionary.resolve("?!")).isEqualTo(IngredientDictionary.UNKNOWN);
+    }
+
+    @Test
+    void resolvesIngredientsByStoredCanonicalNameWithNameFallback() {
+        Ingredient stored = new Ingredient("Spring onions", 2.0, null, 1, "green onion");
+        Ingredient legacy = new Ingredient("Spring onions", 2.0, null, 1, null);
+
+        assertThat(dictionary.resolve(stored)).isEqualTo(dictionary.resolve("green onion"));
+        assertThat(dictionary.resolve(legacy)).isEqualTo(dictionary.resolve("green onion"));
+    }
+}
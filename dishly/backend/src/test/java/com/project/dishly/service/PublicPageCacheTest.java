@@ -0,0 +1,181 @@
+package com.project.dishly.service;
+
+import com.project.dishly.dto.response.RecipeListResponse;
+import com.project.dishly.model.Recipe;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicPageCacheTest {
+
+    private PublicPageCache cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new PublicPageCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "softTtlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        cache.init();
+    }
+
+    @Test
+    void counterChangeEvictsOnlyPagesContainingTheRecipe() {
+        PublicPageCache.PageKey first = PublicPageCache.PageKey.of(null, "page:0", 2);
+        PublicPageCache.PageKey second = PublicPageCache.PageKey.of(null, "page:1", 2);
+        load(first, "r1", "r2");
+        load(second, "r3", "r4");
+
+        cache.onRecipeChanged(new RecipeChangedEvent("r3", RecipeChangedEvent.ChangeType.COUNTERS, null));
+
+        assertThat(reloads(first)).isFalse();
+        assertThat(reloads(second)).isTrue();
+    }
+
+    @Test
+    void discardedLoadLeavesNoTags() {
+        PublicPageCache.PageKey key = PublicPageCache.PageKey.of(null, "page:0", 2);
+
+        cache.get(key, () -> {
+            // A write lands while the page is being read
+            cache.onRecipeChanged(new RecipeChangedEvent("r9", RecipeChangedEvent.ChangeType.UPDATED, null));
+            return page("r1");
+        });
+
+        assertThat(tags("pagesByRecipe")).isEmpty();
+        assertThat(tags("pagesBySegment")).isEmpty();
+        assertThat(reloads(key)).isTrue();
+    }
+
+    @Test
+    void counterChangeKeepsLoadsInFlight() {
+        PublicPageCache.PageKey key = PublicPageCache.PageKey.of(null, "page:0", 2);
+
+        cache.get(key, () -> {
+            // A like on a recipe that is not on the page being read
+            cache.onRecipeChanged(new RecipeChangedEvent("r9", RecipeChangedEvent.ChangeType.COUNTERS, null));
+            return page("r1");
+        });
+
+        assertThat(tags("pagesByRecipe")).containsOnlyKeys("r1");
+        assertThat(reloads(key)).isFalse();
+    }
+
+    @Test
+    void evictionRemovesTags() {
+        PublicPageCache.PageKey key = PublicPageCache.PageKey.of("Dinner", "page:0", 2);
+        load(key, "r1");
+        assertThat(tags("pagesByRecipe")).containsOnlyKeys("r1");
+
+        cache.onRecipeChanged(new RecipeChangedEvent("r1", RecipeChangedEvent.ChangeType.COUNTERS, null));
+
+        assertThat(tags("pagesByRecipe")).isEmpty();
+        assertThat(tags("pagesBySegment")).isEmpty();
+    }
+
+    @Test
+    void createdPublicRecipeEvictsMatchingSegmentsOnly() {
+        PublicPageCache.PageKey all = PublicPageCache.PageKey.of(null, "page:0", 2);
+        PublicPageCache.PageKey dinner = PublicPageCache.PageKey.of("dinner", "page:3", 2);
+        PublicPageCache.PageKey dessert = PublicPageCache.PageKey.of("dessert", "page:0", 2);
+        load(all, "r1");
+        load(dinner, "r2");
+        load(dessert, "r3");
+
+        cache.onRecipeChanged(new RecipeChangedEvent("new", RecipeChangedEvent.ChangeType.CREATED,
+                recipe(true, "Dinner")));
+
+        assertThat(reloads(all)).isTrue();
+        assertThat(reloads(dinner)).isTrue();
+        assertThat(reloads(dessert)).isFalse();
+    }
+
+    @Test
+    void exactCategorySlicesMatchTheWholeCategory() {
+        PublicPageCache.PageKey dinner = PublicPageCache.PageKey.exact("Dinner", "cursor:", 2);
+        PublicPageCache.PageKey lowerCase = PublicPageCache.PageKey.exact("dinner", "cursor:", 2);
+        PublicPageCache.PageKey party = PublicPageCache.PageKey.exact("Dinner party", "cursor:", 2);
+        load(dinner, "r1");
+        load(lowerCase, "r2");
+        load(party, "r3");
+
+        cache.onRecipeChanged(new RecipeChangedEvent("new", RecipeChangedEvent.ChangeType.CREATED,
+                recipe(true, "Dinner")));
+
+        assertThat(reloads(dinner)).isTrue();
+        assertThat(reloads(lowerCase)).isFalse();
+        assertThat(reloads(party)).isFalse();
+    }
+
+    @Test
+    void recipeMadePrivateEvictsItsSegmentsEvenWhereUntagged() {
+        PublicPageCache.PageKey dinner = PublicPageCache.PageKey.of("dinner", "page:5", 2);
+        PublicPageCache.PageKey dessert = PublicPageCache.PageKey.of("dessert", "page:0", 2);
+        load(dinner, "r2");
+        load(dessert, "r3");
+
+        cache.onRecipeChanged(new RecipeChangedEvent("r1", RecipeChangedEvent.ChangeType.VISIBILITY,
+                recipe(false, "Dinner")));
+
+        assertThat(reloads(dinner)).isTrue();
+        assertThat(reloads(dessert)).isFalse();
+    }
+
+    @Test
+    void deletedRecipeEvictsEveryPage() {
+        PublicPageCache.PageKey dinner = PublicPageCache.PageKey.of("dinner", "page:5", 2);
+        PublicPageCache.PageKey dessert = PublicPageCache.PageKey.of("dessert", "page:0", 2);
+        load(dinner, "r2");
+        load(dessert, "r3");
+
+        cache.onRecipeChanged(new RecipeChangedEvent("r1", RecipeChangedEvent.ChangeType.DELETED, null));
+
+        assertThat(reloads(dinner)).isTrue();
+        assertThat(reloads(dessert)).isTrue();
+    }
+
+    private void load(PublicPageCache.PageKey key, String... recipeIds) {
+        cache.get(key, () -> page(recipeIds));
+    }
+
+    private boolean reloads(PublicPageCache.PageKey key) {
+        int before = loads.get();
+        cache.get(key, () -> page());
+        return loads.get() > before;
+    }
+
+    private PublicPageCache.CachedPage page(String... recipeIds) {
+        loads.incrementAndGet();
+        List<RecipeListResponse> cards = new ArrayList<>();
+        for (String id : recipeIds) {
+            RecipeListResponse card = new RecipeListResponse();
+            card.setId(id);
+            cards.add(card);
+        }
+        return new PublicPageCache.CachedPage(cards, recipeIds.length, false, null);
+    }
+
+    private static Recipe recipe(boolean isPublic, String category) {
+        Recipe recipe = new Recipe();
+        recipe.setIsPublic(isPublic);
+        recipe.setCategories(List.of(category));
+        return recipe;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Set<PublicPageCache.PageKey>> tags(String field) {
+        return (Map<String, Set<PublicPageCache.PageKey>>) ReflectionTestUtils.getField(cache, field);
+    }
+}
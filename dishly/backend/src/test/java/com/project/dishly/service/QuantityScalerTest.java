@@ -0,0 +1,49 @@
+package com.project.dishly.service;
+
+import com.project.dishly.model.Ingredient;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuantityScalerTest {
+
+    @Test
+    void roundsSpoonAndCupQuantitiesToTheCloserOfEighthsAndThirds() {
+        assertThat(QuantityScaler.round(0.67, UnitConverter.parse("tbsp"))).isEqualTo(0.67);
+        assertThat(QuantityScaler.round(0.3, UnitConverter.parse("cup"))).isEqualTo(0.33);
+        assertThat(QuantityScaler.round(0.6, UnitConverter.parse("cup"))).isEqualTo(0.63);
+        assertThat(QuantityScaler.round(1.3, UnitConverter.parse("tsp"))).isEqualTo(1.33);
+        assertThat(QuantityScaler.round(12.4, UnitConverter.parse("cup"))).isEqualTo(12.0);
+    }
+
+    @Test
+    void roundsMetricQuantitiesToMeasurablePrecision() {
+        assertThat(QuantityScaler.round(12.6, UnitConverter.parse("g"))).isEqualTo(13.0);
+        assertThat(QuantityScaler.round(2.44, UnitConverter.parse("ml"))).isEqualTo(2.4);
+        assertThat(QuantityScaler.round(1.234, UnitConverter.parse("kg"))).isEqualTo(1.23);
+    }
+
+    @Test
+    void positiveQuantitiesNeverRoundToZero() {
+        assertThat(QuantityScaler.round(0.01, null)).isEqualTo(0.13);
+        assertThat(QuantityScaler.round(0.04, UnitConverter.parse("g"))).isEqualTo(0.1);
+        assertThat(QuantityScaler.round(0.001, UnitConverter.parse("l"))).isEqualTo(0.01);
+        assertThat(QuantityScaler.round(0.0, null)).isZero();
+    }
+
+    @Test
+    void scalesIntoCopiesLeavingTheStoredIngredientsUntouched() {
+        Ingredient flour = new Ingredient("Flour", 250.0, "g", 1, "flour");
+        Ingredient salt = new Ingredient("Salt", null, "pinch", 2, "salt");
+        List<Ingredient> stored = List.of(flour, salt);
+
+        List<Ingredient> scaled = QuantityScaler.scale(stored, 1.5);
+
+        assertThat(scaled).extracting(Ingredient::getQuantity).containsExactly(375.0, null);
+        assertThat(scaled.get(0).getUnit()).isEqualTo("g");
+        assertThat(flour.getQuantity()).isEqualTo(250.0);
+        assertThat(QuantityScaler.scale(stored, 1.0)).isSameAs(stored);
+    }
+}
@@ -0,0 +1,49 @@
+package com.project.dishly.service;
+
+import com.project.dishly.model.Ingredient;
+import com.project.dishly.model.ShoppingItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShoppingListAggregatorTest {
+
+    private ShoppingListAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        IngredientDictionary dictionary = new IngredientDictionary();
+        ReflectionTestUtils.setField(dictionary, "synonymsResource", "ingredient-synonyms.txt");
+        dictionary.loadSynonyms();
+        aggregator = new ShoppingListAggregator(dictionary, 8);
+    }
+
+    @Test
+    void mergesSpellingsOfOneIngredientAcrossUnits() {
+        aggregator.add(new Ingredient("Tomatoes", 500.0, "g", 1, null), 1.0);
+        aggregator.add(new Ingredient("tomato", 1.0, "kg", 2, "tomato"), 1.0);
+
+        List<ShoppingItem> items = aggregator.items();
+
+        assertThat(items).hasSize(1);
+        assertThat(items.get(0).getIngredientName()).isEqualTo("Tomatoes");
+        assertThat(items.get(0).getQuantity()).isEqualTo(1.5);
+        assertThat(items.get(0).getUnit()).isEqualTo("kg");
+    }
+
+    @Test
+    void keepsUnresolvableNamesApartBySpelling() {
+        aggregator.add(new Ingredient("?", 1.0, "pinch", 1, null), 1.0);
+        aggregator.add(new Ingredient("!!", 1.0, "pinch", 2, null), 1.0);
+        aggregator.add(new Ingredient(" ? ", 1.0, "pinch", 3, null), 1.0);
+
+        List<ShoppingItem> items = aggregator.items();
+
+        assertThat(items).extracting(ShoppingItem::getIngredientName).containsExactly("?", "!!");
+        assertThat(items.get(0).getQuantity()).isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,185 @@
+package com.project.dishly.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightCacheTest {
+
+    private static final int WAITERS = 4;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(WAITERS + 1);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final List<String> stored = new ArrayList<>();
+
+    private SingleFlightCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SingleFlightCache<>("test", 100, Duration.ofMinutes(1), Duration.ofMinutes(1),
+                meterRegistry, null, (key, value) -> stored.add(key + "=" + value));
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void hitReturnsCachedValueWithoutLoading() {
+        assertThat(cache.get("k", counting(key -> "v1"))).isEqualTo("v1");
+        assertThat(cache.get("k", counting(key -> "v2"))).isEqualTo("v1");
+
+        assertThat(loads).hasValue(1);
+        assertThat(stored).containsExactly("k=v1");
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, String> loader = counting(key -> {
+            await(release);
+            return "v";
+        });
+
+        List<Future<String>> results = startWaiters(loader);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("v");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidationDuringLoadDiscardsTheResult() {
+        String value = cache.get("k", counting(key -> {
+            // A write lands after the loader read the old value
+            cache.invalidate(key);
+            return "old";
+        }));
+
+        assertThat(value).isEqualTo("old");
+        assertThat(cache.peek("k")).isNull();
+        assertThat(stored).isEmpty();
+        assertThat(cache.get("k", counting(key -> "new"))).isEqualTo("new");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void discardingLoadsInFlightKeepsCachedEntries() {
+        cache.get("a", key -> "cached");
+
+        cache.get("b", key -> {
+            cache.discardLoadsInFlight();
+            return "discarded";
+        });
+
+        assertThat(cache.peek("a")).isEqualTo("cached");
+        assertThat(cache.peek("b")).isNull();
+    }
+
+    @Test
+    void loaderExceptionReachesEveryWaiter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, String> loader = counting(key -> {
+            await(release);
+            throw new IllegalStateException("database down");
+        });
+
+        List<Future<String>> results = startWaiters(loader);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(cache.get("k", key -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void loaderErrorDoesNotLeaveWaitersBlocked() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, String> loader = counting(key -> {
+            await(release);
+            throw new LinkageError("class missing");
+        });
+
+        List<Future<String>> results = startWaiters(loader);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(LinkageError.class);
+        }
+        assertThat(cache.get("k", key -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void staleEntryIsServedWhileRefreshing() throws Exception {
+        cache = new SingleFlightCache<>("stale-test", 100, Duration.ZERO, Duration.ofMinutes(1),
+                meterRegistry, null, null);
+        cache.get("k", key -> "old");
+
+        assertThat(cache.get("k", key -> "new")).isEqualTo("old");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!"new".equals(cache.peek("k")) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(cache.peek("k")).isEqualTo("new");
+    }
+
+    /**
+     * Start one caller that runs the load and WAITERS callers coalesced onto it.
+     */
+    private List<Future<String>> startWaiters(Function<String, String> loader) throws InterruptedException {
+        List<Future<String>> results = new ArrayList<>();
+        results.add(callers.submit(() -> cache.get("k", loader)));
+        while (loads.get() == 0) {
+            Thread.sleep(1);
+        }
+        for (int i = 0; i < WAITERS; i++) {
+            results.add(callers.submit(() -> cache.get("k", loader)));
+        }
+        while (meterRegistry.get("dishly.cache.requests").tag("result", "coalesced").counter().count() < WAITERS) {
+            Thread.sleep(1);
+        }
+        return results;
+    }
+
+    private Function<String, String> counting(Function<String, String> loader) {
+        return key -> {
+            loads.incrementAndGet();
+            return loader.apply(key);
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.dishly.service;
+
+import com.project.dishly.model.Recipe;
+import com.project.dishly.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TrendingLeaderboardTest {
+
+    private static final int CAPACITY = 3;
+
+    /** Like counts of the public recipes "in MongoDB" */
+    private final Map<String, Integer> publicLikes = new HashMap<>();
+
+    private RecipeRepository recipeRepository;
+
+    private TrendingLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        recipeRepository = mock(RecipeRepository.class);
+        when(recipeRepository.findPublicLikeCounts(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(0);
+            return publicLikes.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(pageable.getPageSize())
+                    .map(entry -> {
+                        Recipe recipe = new Recipe();
+                        recipe.setId(entry.getKey());
+                        recipe.setLikeCount(entry.getValue());
+                        return recipe;
+                    })
+                    .toList();
+        });
+        leaderboard = new TrendingLeaderboard();
+        ReflectionTestUtils.setField(leaderboard, "recipeRepository", recipeRepository);
+        ReflectionTestUtils.setField(leaderboard, "capacity", CAPACITY);
+    }
+
+    @Test
+    void completeBoardAdmitsEveryPublicRecipe() {
+        publicLikes.put("r1", 4);
+        leaderboard.rebuild();
+
+        change("r2", 0, true);
+        change("r3", 1, false);
+
+        assertThat(leaderboard.top(CAPACITY)).containsExactly("r1", "r2");
+    }
+
+    @Test
+    void recipesBelowTheFloorStayOffTheBoard() {
+        publicLikes.putAll(Map.of("r1", 10, "r2", 8, "r3", 6, "r4", 1));
+        leaderboard.rebuild();
+
+        // r4 may still be outranked by public recipes this node has never seen
+        change("r4", 2, true);
+
+        assertThat(leaderboard.top(CAPACITY)).containsExactly("r1", "r2", "r3");
+    }
+
+    @Test
+    void entryFallingBelowTheFloorTriggersARebuild() {
+        publicLikes.putAll(Map.of("r1", 10, "r2", 8, "r3", 6, "r4", 5));
+        leaderboard.rebuild();
+
+        change("r3", 0, true);
+
+        assertThat(leaderboard.top(CAPACITY)).containsExactly("r1", "r2", "r4");
+        verify(recipeRepository, times(2)).findPublicLikeCounts(any(Pageable.class));
+    }
+
+    @Test
+    void topMatchesAFullScanAfterRandomChanges() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10; i++) {
+            publicLikes.put("r" + i, random.nextInt(5));
+        }
+        leaderboard.rebuild();
+
+        Map<String, Integer> likes = new HashMap<>(publicLikes);
+        for (int step = 0; step < 2000; step++) {
+            String recipeId = "r" + random.nextInt(15);
+            int count = Math.max(0, likes.getOrDefault(recipeId, 0) + random.nextInt(5) - 2);
+            likes.put(recipeId, count);
+            change(recipeId, count, random.nextInt(10) > 0);
+
+            List<Integer> expected = new ArrayList<>(publicLikes.values());
+            expected.sort(Comparator.reverseOrder());
+            List<Integer> actual = leaderboard.top(CAPACITY).stream().map(publicLikes::get).toList();
+            assertThat(actual).as("step %d", step)
+                    .containsExactlyElementsOf(expected.subList(0, Math.min(CAPACITY, expected.size())));
+        }
+    }
+
+    /**
+     * Write a recipe's like count and visibility, then report it the way RecipeService does.
+     */
+    private void change(String recipeId, int likeCount, boolean isPublic) {
+        if (isPublic) {
+            publicLikes.put(recipeId, likeCount);
+        } else {
+            publicLikes.remove(recipeId);
+        }
+        leaderboard.update(recipeId, likeCount, isPublic);
+    }
+}
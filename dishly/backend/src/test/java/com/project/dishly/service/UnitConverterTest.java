@@ -0,0 +1,36 @@
+package com.project.dishly.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class UnitConverterTest {
+
+    @Test
+    void derivesFactorsThroughChainsOfConversions() {
+        // gallon -> quart -> pint -> cup -> tbsp -> tsp -> ml
+        assertThat(UnitConverter.parse("gallon").toBase()).isCloseTo(3785.411784, within(1e-6));
+        // lb -> oz -> g, and mg reached through the inverse of g -> mg
+        assertThat(UnitConverter.parse("lb").toBase()).isCloseTo(453.59237, within(1e-9));
+        assertThat(UnitConverter.parse("mg").toBase()).isCloseTo(0.001, within(1e-12));
+        assertThat(UnitConverter.parse("dozen").toBase()).isEqualTo(12.0);
+    }
+
+    @Test
+    void parsesAliasesIgnoringCaseSpacingAndTrailingPeriod() {
+        assertThat(UnitConverter.parse("Tbsp.").symbol()).isEqualTo("tbsp");
+        assertThat(UnitConverter.parse("  Fluid   Ounces ").symbol()).isEqualTo("fl oz");
+        assertThat(UnitConverter.parse("kilos").dimension()).isEqualTo(UnitConverter.Dimension.MASS);
+        assertThat(UnitConverter.parse(null).symbol()).isEqualTo("piece");
+        assertThat(UnitConverter.parse("clove")).isNull();
+    }
+
+    @Test
+    void displaysLargeMetricQuantitiesInKilogramsAndLitres() {
+        assertThat(UnitConverter.displayUnit(UnitConverter.Dimension.MASS, 1500).symbol()).isEqualTo("kg");
+        assertThat(UnitConverter.displayUnit(UnitConverter.Dimension.MASS, 999).symbol()).isEqualTo("g");
+        assertThat(UnitConverter.displayUnit(UnitConverter.Dimension.VOLUME, 1000).symbol()).isEqualTo("l");
+        assertThat(UnitConverter.displayUnit(UnitConverter.Dimension.COUNT, 24).symbol()).isEqualTo("piece");
+    }
+}
@@ -3,7 +3,7 @@
 import { useEffect, useState } from 'react'
 import { useParams, useRouter } from 'next/navigation'
 import { useAuthStore } from '@/store/authStore'
-import { collectionService, recipeService } from '@/services/api'
+import { collectionService } from '@/services/api'
 import { RecipeCollection } from '@/types'
 import toast from 'react-hot-toast'
 import { ArrowLeft, Trash2, Loader } from 'lucide-react'
@@ -28,17 +28,9 @@ export default function CollectionDetailPage() {
       if (found) {
         setCollection(found)
         // Fetch all recipes in this collection
-        if (found.recipeIds && found.recipeIds.length > 0) {
-          try {
-            const collectionRecipes = await collectionService.getCollectionRecipes(collectionId)
-            setRecipes(collectionRecipes)
-          } catch (error) {
-            // Fallback: filter user recipes if dedicated endpoint not available
-            console.warn('Collection recipes endpoint not available, using fallback')
-            const allRecipes = await recipeService.getUserRecipes()
-            const recipeData = allRecipes.filter((recipe) => found.recipeIds.includes(recipe.id))
-            setRecipes(recipeData)
-          }
+        if (found.recipeCount > 0) {
+          const collectionRecipes = await collectionService.getAllCollectionRecipes(collectionId)
+          setRecipes(collectionRecipes)
         }
       } else {
         toast.error('Collection not found')
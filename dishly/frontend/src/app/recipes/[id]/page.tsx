@@ -65,9 +65,8 @@ export default function RecipeDetailPage() {
       const likedCollection = collections.find((c) => c.name === 'Liked Recipes')
       
       if (likedCollection) {
-        const recipes = await collectionService.getCollectionRecipes(likedCollection.id)
-        const isInCollection = recipes.some((r) => r.id === recipeId)
-        setIsLiked(isInCollection)
+        const containing = await collectionService.getCollectionsContaining(recipeId)
+        setIsLiked(containing.includes(likedCollection.id))
       } else {
         setIsLiked(false)
       }
@@ -96,17 +95,10 @@ export default function RecipeDetailPage() {
       setCollections(uniqueCollections)
       
       // Check which collections already contain this recipe
-      const recipeInCollections: string[] = []
-      for (const collection of uniqueCollections) {
-        try {
-          const recipes = await collectionService.getCollectionRecipes(collection.id)
-          if (recipes.some((r) => r.id === recipeId)) {
-            recipeInCollections.push(collection.id)
-          }
-        } catch (error) {
-          console.error(`Failed to fetch recipes for collection ${collection.id}:`, error)
-        }
-      }
+      const containing = await collectionService.getCollectionsContaining(recipeId)
+      const recipeInCollections = uniqueCollections
+        .map((collection) => collection.id)
+        .filter((id) => containing.includes(id))
       setExistingCollections(recipeInCollections)
       setSelectedCollections(recipeInCollections)
     } catch (error) {
@@ -58,9 +58,8 @@ export default function RecipeCard({ recipe, onDelete, showDeleteButton, showEdi
       const likedCollection = collections.find((c) => c.name === 'Liked Recipes')
       
       if (likedCollection) {
-        const recipes = await collectionService.getCollectionRecipes(likedCollection.id)
-        const isInCollection = recipes.some((r) => r.id === recipe.id)
-        setIsLiked(isInCollection)
+        const containing = await collectionService.getCollectionsContaining(recipe.id)
+        setIsLiked(containing.includes(likedCollection.id))
       } else {
         setIsLiked(false)
       }
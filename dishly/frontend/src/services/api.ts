@@ -150,8 +150,30 @@ export const collectionService = {
     await api.delete(`/collections/${id}`)
   },
 
-  getCollectionRecipes: async (collectionId: string): Promise<RecipeList[]> => {
-    const response = await api.get(`/collections/${collectionId}/recipes`)
+  getCollectionRecipes: async (
+    collectionId: string,
+    page: number = 0,
+    size: number = 20
+  ): Promise<any> => {
+    const params = new URLSearchParams()
+    params.append('page', page.toString())
+    params.append('size', size.toString())
+
+    const response = await api.get(`/collections/${collectionId}/recipes`, { params })
+    return response.data
+  },
+
+  getAllCollectionRecipes: async (collectionId: string): Promise<RecipeList[]> => {
+    const recipes: RecipeList[] = []
+    for (let page = 0; ; page++) {
+      const data = await collectionService.getCollectionRecipes(collectionId, page, 100)
+      recipes.push(...data.content)
+      if (data.last) return recipes
+    }
+  },
+
+  getCollectionsContaining: async (recipeId: string): Promise<string[]> => {
+    const response = await api.get(`/collections/containing/${recipeId}`)
     return response.data
   },
 }
@@ -80,7 +80,6 @@ export interface RecipeCollection {
   id: string
   name: string
   recipeCount: number
-  recipeIds: string[]
   createdAt: string
 }
 